@@ -61,6 +61,11 @@ sourceSets {
         }
     }
     create("datagen")
+    create("jmh")
+    // Game tests and their structures, only on the classpath of the gameTest run
+    create("gametest")
+    // The payload load generator and its command, only on the classpath of the loadTestServer run
+    create("loadtest")
 }
 
 /**
@@ -80,11 +85,23 @@ configurations.runtimeClasspath.configure {
 configurations {
     get("datagenCompileClasspath").extendsFrom(compileClasspath.get())
     get("datagenRuntimeClasspath").extendsFrom(runtimeClasspath.get())
+    get("gametestCompileClasspath").extendsFrom(compileClasspath.get())
+    get("gametestRuntimeClasspath").extendsFrom(runtimeClasspath.get())
+    get("loadtestCompileClasspath").extendsFrom(compileClasspath.get())
+    get("loadtestRuntimeClasspath").extendsFrom(runtimeClasspath.get())
+    // Benchmarks run inside the same FML unit test environment as the tests
+    get("jmhImplementation").extendsFrom(testImplementation.get())
+    get("jmhRuntimeOnly").extendsFrom(testRuntimeOnly.get())
+    get("jmhCompileClasspath").extendsFrom(compileClasspath.get())
+    get("jmhRuntimeClasspath").extendsFrom(runtimeClasspath.get())
 }
 
 neoForge {
     version = libs.versions.neforge.get()
     addModdingDependenciesTo(sourceSets["datagen"])
+    addModdingDependenciesTo(sourceSets["jmh"])
+    addModdingDependenciesTo(sourceSets["gametest"])
+    addModdingDependenciesTo(sourceSets["loadtest"])
     validateAccessTransformers = true
 
     parchment {
@@ -105,6 +122,11 @@ neoForge {
 
             // Only JBR allows enhanced class redefinition, so ignore the option for any other JDKs
             jvmArguments.addAll("-XX:+IgnoreUnrecognizedVMOptions", "-XX:+AllowEnhancedClassRedefinition", "-ea")
+
+            // Pass -Pjfr to record a flight recording with our events turned on, written to the run's game directory
+            if (providers.gradleProperty("jfr").isPresent) {
+                jvmArguments.add("-XX:StartFlightRecording:settings=default,settings=${file("src/main/resources/examplemod.jfc").path},filename=examplemod.jfr,dumponexit=true")
+            }
         }
 
         register("client") {
@@ -121,6 +143,13 @@ neoForge {
         register("datagen") {
             data()
             gameDirectory = file("run/datagen")
+            // Skip providers whose inputs haven't changed since the last run, pass -PincrementalDatagen=false to regenerate everything
+            systemProperty("examplemod.datagen.incremental", providers.gradleProperty("incrementalDatagen").getOrElse("true"))
+            // Same as --existing below, existing resources the providers check against are part of their fingerprints
+            systemProperty("examplemod.datagen.existing", file("src/main/resources/").path)
+            // Pass -PminifyDatagen=true for minified JSON and -PrecipeAdvancements=false to drop the recipe unlock advancements
+            systemProperty("examplemod.datagen.minify", providers.gradleProperty("minifyDatagen").getOrElse("false"))
+            systemProperty("examplemod.datagen.recipeAdvancements", providers.gradleProperty("recipeAdvancements").getOrElse("true"))
 
             // Specify the modid for data generation, where to output the resulting resource, and where to look for existing resources.
             programArguments.addAll(
@@ -138,8 +167,17 @@ neoForge {
 
         register("gameTest") {
             type = "gameTestServer"
+            sourceSet = sourceSets["gametest"]
             gameDirectory = file("run/game_test")
         }
+
+        // A dedicated server with /examplemod loadtest available
+        register("loadTestServer") {
+            server()
+            sourceSet = sourceSets["loadtest"]
+            gameDirectory = file("run/load_test")
+            programArgument("--nogui")
+        }
     }
 
     mods {
@@ -147,6 +185,9 @@ neoForge {
             sourceSet(sourceSets.main.get())
             sourceSet(sourceSets.test.get())
             sourceSet(sourceSets["datagen"])
+            sourceSet(sourceSets["jmh"])
+            sourceSet(sourceSets["gametest"])
+            sourceSet(sourceSets["loadtest"])
         }
     }
 
@@ -225,6 +266,13 @@ dependencies {
     testImplementation(sourceSets["datagen"].output)
     testImplementation(libs.junit.jupiter)
     testRuntimeOnly(libs.junit.platform)
+
+    "gametestImplementation"(sourceSets["main"].output)
+    "loadtestImplementation"(sourceSets["main"].output)
+
+    "jmhImplementation"(sourceSets["main"].output)
+    "jmhImplementation"(libs.jmh.core)
+    "jmhAnnotationProcessor"(libs.jmh.generator)
 }
 
 idea {
@@ -254,4 +302,27 @@ tasks {
             events(TestLogEvent.PASSED, TestLogEvent.SKIPPED, TestLogEvent.FAILED)
         }
     }
+
+    register<Test>("jmh") {
+        group = "verification"
+        description = "Runs the JMH benchmarks in the unit test environment and writes the results as JSON"
+
+        testClassesDirs = sourceSets["jmh"].output.classesDirs
+        classpath = sourceSets["jmh"].runtimeClasspath
+        useJUnitPlatform()
+        // Reuse the FML bootstrap ModDevGradle sets up for the unit tests so benchmarks can touch registries and codecs
+        val unitTest = test.get()
+        dependsOn(unitTest.dependsOn)
+        jvmArgumentProviders.addAll(unitTest.jvmArgumentProviders)
+        systemProperties(unitTest.systemProperties)
+
+        val results = layout.buildDirectory.file("reports/jmh/results.json")
+        outputs.file(results)
+        outputs.upToDateWhen { false }
+        systemProperty("examplemod.jmh.results", results.get().asFile.path)
+        providers.gradleProperty("jmh.include").orNull?.let { systemProperty("examplemod.jmh.include", it) }
+        testLogging {
+            showStandardStreams = true
+        }
+    }
 }
\ No newline at end of file
@@ -1,5 +1,8 @@
 package com.example.examplemod;
 
+import com.example.examplemod.advancement.ExampleAdvancements;
+import com.example.examplemod.common.item.*;
+import com.example.examplemod.generator.*;
 import com.example.examplemod.providers.*;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.common.EventBusSubscriber;
@@ -14,16 +17,52 @@ public final class DataGenerators {
 		final var lookupProvider = event.getLookupProvider();
 		final var existingFileHelper = event.getExistingFileHelper();
 		final var packOutput = generator.getPackOutput();
+		// Minified output and dropping recipe advancements are chosen in the datagen run, see OutputMode
+		final var outputMode = OutputMode.fromSystemProperties();
+		// Providers are wrapped so unchanged ones can be skipped, see IncrementalDatagen
+		final var incremental = IncrementalDatagen.create(packOutput, outputMode);
 
-		generator.addProvider(event.includeServer(), new BuiltInItemSizes(packOutput, lookupProvider));
+		// Providers only wait on what they actually depend on, everything else runs in parallel, see ProviderGraph
+		final var graph = ProviderGraph.builder("Example mod providers");
+
+		graph.add(event.includeServer(), incremental.wrap(new BuiltInItemSizes(packOutput, lookupProvider))
+				.sources(ExampleModItems.class)
+				.registryContents(ExampleModItems.ITEMS)
+				.build());
 		// The ItemHeatProvider generates extra recipes so we need to hang onto a reference to hand to our recipe provider
-		final var builtInItemHeat = generator.addProvider(event.includeServer(), new BuiltInItemHeat(packOutput, lookupProvider));
-		generator.addProvider(event.includeServer(), new BuiltInRecipes(packOutput, lookupProvider, builtInItemHeat));
+		final var builtInItemHeat = new BuiltInItemHeat(packOutput, lookupProvider);
+		final var incrementalItemHeat = graph.add(event.includeServer(), incremental.wrap(builtInItemHeat)
+				.sources(ExampleModItems.class)
+				.registryContents(ExampleModItems.ITEMS)
+				.build());
+		graph.add(event.includeServer(), incremental.wrap(new BuiltInRecipes(packOutput, lookupProvider, builtInItemHeat))
+				.sources(ExampleModItems.class)
+				.registryContents(ExampleModItems.ITEMS)
+				.dependsOn(incrementalItemHeat)
+				.build(), incrementalItemHeat);
 		// The EnhancedAdvancementProvider generates extra language so we need to hang onto a reference to hand to our language provider
-		final var builtInAdvancements = generator.addProvider(event.includeServer(),
-				BuiltInAdvancements.create(packOutput, lookupProvider, existingFileHelper));
+		final var builtInAdvancements = BuiltInAdvancements.create(packOutput, lookupProvider, existingFileHelper);
+		final var incrementalAdvancements = graph.add(event.includeServer(), incremental.wrap(builtInAdvancements)
+				.sources(BuiltInAdvancements.class, ExampleAdvancements.class, ExampleModItems.class)
+				// Parents and background textures are checked against the existing resources
+				.existingResources("data/" + ExampleMod.MOD_ID + "/advancement", "assets/" + ExampleMod.MOD_ID + "/textures")
+				.build());
+
+		graph.add(event.includeClient(), incremental.wrap(new BuiltInLanguage(packOutput, builtInAdvancements))
+				.sources(ExampleModItems.class, ExampleItem.class)
+				.registryContents(ExampleModItems.ITEMS)
+				.dependsOn(incrementalAdvancements)
+				.build(), incrementalAdvancements);
+		// Waits for the advancements only because both use the existing file helper, which isn't thread safe
+		graph.add(event.includeClient(), incremental.wrap(new BuiltInItemModels(packOutput, existingFileHelper))
+				.sources(ExampleModItems.class)
+				.registryContents(ExampleModItems.ITEMS)
+				// Textures and parent models are checked against the existing resources
+				.existingResources("assets/" + ExampleMod.MOD_ID + "/textures", "assets/" + ExampleMod.MOD_ID + "/models")
+				.build(), incrementalAdvancements);
 
-		generator.addProvider(event.includeClient(), new BuiltInLanguage(packOutput, builtInAdvancements));
-		generator.addProvider(event.includeClient(), new BuiltInItemModels(packOutput, existingFileHelper));
+		generator.addProvider(true, graph.build());
+		generator.addProvider(true, incremental.report());
+		generator.addProvider(true, outputMode.report());
 	}
-}
\ No newline at end of file
+}
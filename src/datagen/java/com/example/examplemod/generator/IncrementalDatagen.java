@@ -0,0 +1,345 @@
+package com.example.examplemod.generator;
+
+import com.example.examplemod.ExampleMod;
+import com.google.common.hash.*;
+import com.google.gson.*;
+import net.neoforged.fml.ModList;
+import net.neoforged.neoforge.registries.DeferredRegister;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.data.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Incremental datagen. Providers are wrapped in an {@link IncrementalProvider} which fingerprints its inputs (the classes
+ * that generate the data along with their nested and anonymous classes, the registry contents and existing resources it
+ * reads, the versions of every loaded mod and its upstream providers) and remembers the files it wrote. When nothing changed the previous output is handed back to the {@link CachedOutput} instead
+ * of running the provider, so the generator's cache still sees every file.
+ * <p>
+ * Providers that depend on each other share data outside of their output, so a connected group of providers is either
+ * skipped or run as a whole.
+ * <p>
+ * Enabled with the {@value #PROPERTY} system property. Fingerprints and outputs are recorded either way so the first
+ * incremental run can already skip. The existing resource roots handed to the generator are read from the
+ * {@value #EXISTING_PROPERTY} system property.
+ */
+public final class IncrementalDatagen {
+
+	public static final String PROPERTY = "examplemod.datagen.incremental";
+	/**
+	 * The existing resource roots, separated by the platform's path separator
+	 */
+	public static final String EXISTING_PROPERTY = "examplemod.datagen.existing";
+
+	private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+	private final Path outputRoot;
+	private final Path stateFolder;
+	private final boolean enabled;
+	private final List<Path> existingRoots;
+	final OutputMode outputMode;
+	private final List<IncrementalProvider> providers = new ArrayList<>();
+	private final Map<IncrementalProvider, Decision> decisions = new ConcurrentHashMap<>();
+	private final Map<IncrementalProvider, Long> ranNanos = new ConcurrentHashMap<>();
+	private @Nullable HashCode environment;
+
+	private IncrementalDatagen(final PackOutput packOutput, final boolean enabled, final List<Path> existingRoots,
+			final OutputMode outputMode) {
+		this.outputRoot = packOutput.getOutputFolder();
+		this.stateFolder = outputRoot.resolve(".cache").resolve(ExampleMod.MOD_ID + "_incremental");
+		this.enabled = enabled;
+		this.existingRoots = existingRoots;
+		this.outputMode = outputMode;
+	}
+
+	/**
+	 * @param outputMode Applied to everything wrapped providers write
+	 */
+	public static IncrementalDatagen create(final PackOutput packOutput, final OutputMode outputMode) {
+		final var existingRoots = Arrays.stream(System.getProperty(EXISTING_PROPERTY, "").split(File.pathSeparator))
+				.filter(root -> !root.isBlank())
+				.map(Path::of)
+				.toList();
+		return new IncrementalDatagen(packOutput, Boolean.getBoolean(PROPERTY), existingRoots, outputMode);
+	}
+
+	/**
+	 * Starts wrapping a provider, the provider's own class is always part of its fingerprint
+	 */
+	public Builder wrap(final DataProvider provider) {
+		return new Builder(provider);
+	}
+
+	/**
+	 * A provider which logs the skipped providers and the time saved, should be added last
+	 */
+	public DataProvider report() {
+		return new DataProvider() {
+			@Override
+			public CompletableFuture<?> run(final CachedOutput output) {
+				long saved = 0;
+				for (final var provider : providers) {
+					final var decision = decisions.get(provider);
+					if (decision == null) continue;
+					if (decision.skip) {
+						saved += decision.previousNanos;
+						ExampleMod.LOG.info("Incremental datagen skipped {} (last run took {}ms)", provider.getName(),
+								decision.previousNanos / 1_000_000D);
+					} else {
+						ExampleMod.LOG.info("Incremental datagen ran {} in {}ms", provider.getName(),
+								ranNanos.getOrDefault(provider, 0L) / 1_000_000D);
+					}
+				}
+				ExampleMod.LOG.info("Incremental datagen {}, saved ~{}ms", enabled ? "enabled" : "disabled", saved / 1_000_000D);
+				return CompletableFuture.completedFuture(null);
+			}
+
+			@Override
+			public String getName() {
+				return "Incremental datagen report";
+			}
+		};
+	}
+
+	/**
+	 * Decides whether the provider's group gets skipped, on first use this decides for every provider at once
+	 */
+	synchronized Decision decide(final IncrementalProvider provider) {
+		if (decisions.isEmpty()) {
+			decideAll();
+		}
+		return decisions.get(provider);
+	}
+
+	void ran(final IncrementalProvider provider, final Map<Path, HashCode> outputs, final long nanos) {
+		ranNanos.put(provider, nanos);
+		final var json = new JsonObject();
+		json.addProperty("fingerprint", fingerprint(provider).toString());
+		json.addProperty("runNanos", nanos);
+		final var files = new JsonObject();
+		outputs.entrySet()
+				.stream()
+				.sorted(Map.Entry.comparingByKey())
+				.forEach(entry -> files.addProperty(outputRoot.relativize(entry.getKey()).toString().replace('\\', '/'),
+						entry.getValue().toString()));
+		json.add("outputs", files);
+		try {
+			Files.createDirectories(stateFolder);
+			Files.writeString(stateFile(provider), GSON.toJson(json));
+		} catch (final IOException exception) {
+			ExampleMod.LOG.warn("Failed to save incremental datagen state for {}", provider.getName(), exception);
+		}
+	}
+
+	private void decideAll() {
+		final var groups = groups();
+		for (final var group : groups) {
+			final var previous = new HashMap<IncrementalProvider, Decision>();
+			boolean skip = enabled;
+			for (final var provider : group) {
+				final var decision = skip ? loadPrevious(provider) : null;
+				if (decision == null) {
+					skip = false;
+				} else {
+					previous.put(provider, decision);
+				}
+			}
+			for (final var provider : group) {
+				decisions.put(provider, skip ? previous.get(provider) : Decision.RUN);
+			}
+		}
+	}
+
+	/**
+	 * @return The previous output if it's still valid, null otherwise
+	 */
+	@Nullable
+	private Decision loadPrevious(final IncrementalProvider provider) {
+		final var stateFile = stateFile(provider);
+		if (!Files.exists(stateFile)) return null;
+		try {
+			final var json = GSON.fromJson(Files.readString(stateFile), JsonObject.class);
+			if (!fingerprint(provider).toString().equals(json.get("fingerprint").getAsString())) return null;
+			final var outputs = new LinkedHashMap<Path, byte[]>();
+			for (final var entry : json.getAsJsonObject("outputs").entrySet()) {
+				final var path = outputRoot.resolve(entry.getKey());
+				if (!Files.exists(path)) return null;
+				final byte[] bytes = Files.readAllBytes(path);
+				// Someone edited the generated file, let the provider overwrite it
+				if (!hash(bytes).toString().equals(entry.getValue().getAsString())) return null;
+				outputs.put(path, bytes);
+			}
+			return new Decision(true, json.get("runNanos").getAsLong(), outputs);
+		} catch (final IOException | RuntimeException exception) {
+			ExampleMod.LOG.warn("Ignoring unreadable incremental datagen state for {}", provider.getName(), exception);
+			return null;
+		}
+	}
+
+	/**
+	 * Splits the providers into groups connected through their dependencies
+	 */
+	private List<List<IncrementalProvider>> groups() {
+		final var groupOf = new HashMap<IncrementalProvider, List<IncrementalProvider>>();
+		for (final var provider : providers) {
+			var group = groupOf.computeIfAbsent(provider, key -> new ArrayList<>(List.of(key)));
+			for (final var upstream : provider.upstream) {
+				final var other = groupOf.computeIfAbsent(upstream, key -> new ArrayList<>(List.of(key)));
+				if (other == group) continue;
+				other.addAll(group);
+				for (final var member : group) {
+					groupOf.put(member, other);
+				}
+				group = other;
+			}
+		}
+		return groupOf.values().stream().distinct().toList();
+	}
+
+	HashCode fingerprint(final IncrementalProvider provider) {
+		final var hasher = Hashing.sha256().newHasher();
+		hasher.putString(provider.getName(), StandardCharsets.UTF_8);
+		hasher.putBytes(environment().asBytes());
+		for (final var source : provider.sources) {
+			// Nested, inner and anonymous classes compile to their own class files, the nest covers all of them
+			final var members = source.getNestHost().getNestMembers();
+			Arrays.sort(members, Comparator.comparing(Class::getName));
+			for (final var member : members) {
+				hasher.putString(member.getName(), StandardCharsets.UTF_8);
+				hasher.putBytes(classBytes(member));
+			}
+		}
+		for (final var register : provider.registers) {
+			register.getEntries().stream().map(holder -> holder.getId().toString()).sorted()
+					.forEach(id -> hasher.putString(id, StandardCharsets.UTF_8));
+		}
+		for (final var folder : provider.existing) {
+			for (final var root : existingRoots) {
+				putFiles(hasher, root, root.resolve(folder));
+			}
+		}
+		for (final var upstream : provider.upstream) {
+			hasher.putBytes(fingerprint(upstream).asBytes());
+		}
+		return hasher.hash();
+	}
+
+	/**
+	 * Hashes the path and contents of every file in the folder, a missing folder hashes nothing
+	 */
+	private static void putFiles(final Hasher hasher, final Path root, final Path folder) {
+		if (!Files.isDirectory(folder)) return;
+		try (final var files = Files.walk(folder)) {
+			for (final var file : files.filter(Files::isRegularFile).sorted().toList()) {
+				hasher.putString(root.relativize(file).toString().replace('\\', '/'), StandardCharsets.UTF_8);
+				hasher.putBytes(Files.readAllBytes(file));
+			}
+		} catch (final IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	/**
+	 * Versions of every loaded mod, so updating TFC or the datagen library invalidates everything
+	 */
+	private synchronized HashCode environment() {
+		if (environment == null) {
+			final var hasher = Hashing.sha256().newHasher();
+			hasher.putString(outputMode.toString(), StandardCharsets.UTF_8);
+			ModList.get().getMods().stream().map(mod -> mod.getModId() + "@" + mod.getVersion()).sorted()
+					.forEach(mod -> hasher.putString(mod, StandardCharsets.UTF_8));
+			environment = hasher.hash();
+		}
+		return environment;
+	}
+
+	private static byte[] classBytes(final Class<?> source) {
+		final var resource = source.getName().replace('.', '/') + ".class";
+		try (final InputStream stream = source.getClassLoader().getResourceAsStream(resource)) {
+			if (stream == null) throw new IllegalStateException("Can't find the class file of " + source.getName());
+			return stream.readAllBytes();
+		} catch (final IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	@SuppressWarnings({"deprecation", "UnstableApiUsage"})
+	static HashCode hash(final byte[] bytes) {
+		// Same hash the generator's cache uses
+		return Hashing.sha1().hashBytes(bytes);
+	}
+
+	private Path stateFile(final IncrementalProvider provider) {
+		return stateFolder.resolve(provider.getName().replaceAll("[^A-Za-z0-9_.-]", "_") + ".json");
+	}
+
+	/**
+	 * @param skip          If the provider is skipped
+	 * @param previousNanos How long the provider took when it last ran
+	 * @param outputs       The previous output, replayed when skipping
+	 */
+	record Decision(boolean skip, long previousNanos, Map<Path, byte[]> outputs) {
+
+		private static final Decision RUN = new Decision(false, 0, Map.of());
+	}
+
+	public final class Builder {
+
+		private final DataProvider provider;
+		private final List<Class<?>> sources = new ArrayList<>();
+		private final List<DeferredRegister<?>> registers = new ArrayList<>();
+		private final List<String> existing = new ArrayList<>();
+		private final List<IncrementalProvider> upstream = new ArrayList<>();
+
+		private Builder(final DataProvider provider) {
+			this.provider = provider;
+			sources.add(provider.getClass());
+		}
+
+		/**
+		 * Classes whose code affects the output, such as the class holding the registered objects
+		 */
+		public Builder sources(final Class<?>... sources) {
+			this.sources.addAll(List.of(sources));
+			return this;
+		}
+
+		/**
+		 * Registers whose entries the provider generates data for
+		 */
+		public Builder registryContents(final DeferredRegister<?>... registers) {
+			this.registers.addAll(List.of(registers));
+			return this;
+		}
+
+		/**
+		 * Folders of the existing resources the provider reads or checks against, such as the textures a model refers to
+		 *
+		 * @param folders Paths relative to the resource root, such as {@code assets/examplemod/textures}
+		 */
+		public Builder existingResources(final String... folders) {
+			this.existing.addAll(List.of(folders));
+			return this;
+		}
+
+		/**
+		 * Providers whose data feeds into this one
+		 */
+		public Builder dependsOn(final IncrementalProvider... upstream) {
+			this.upstream.addAll(List.of(upstream));
+			return this;
+		}
+
+		public IncrementalProvider build() {
+			final var incremental = new IncrementalProvider(IncrementalDatagen.this, provider, List.copyOf(sources), List.copyOf(registers),
+					List.copyOf(existing), List.copyOf(upstream));
+			providers.add(incremental);
+			return incremental;
+		}
+	}
+}
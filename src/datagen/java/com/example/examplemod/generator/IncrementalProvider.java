@@ -0,0 +1,66 @@
+package com.example.examplemod.generator;
+
+import com.google.common.hash.HashCode;
+import net.neoforged.neoforge.registries.DeferredRegister;
+
+import net.minecraft.data.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * A provider wrapped by {@link IncrementalDatagen}, either runs the provider while recording what it writes or replays its
+ * previous output
+ */
+public final class IncrementalProvider implements DataProvider {
+
+	private final IncrementalDatagen incremental;
+	private final DataProvider provider;
+	final List<Class<?>> sources;
+	final List<DeferredRegister<?>> registers;
+	final List<String> existing;
+	final List<IncrementalProvider> upstream;
+
+	IncrementalProvider(final IncrementalDatagen incremental, final DataProvider provider, final List<Class<?>> sources,
+			final List<DeferredRegister<?>> registers, final List<String> existing, final List<IncrementalProvider> upstream) {
+		this.incremental = incremental;
+		this.provider = provider;
+		this.sources = sources;
+		this.registers = registers;
+		this.existing = existing;
+		this.upstream = upstream;
+	}
+
+	@Override
+	public CompletableFuture<?> run(final CachedOutput output) {
+		final var decision = incremental.decide(this);
+		if (decision.skip()) {
+			// The generator's cache drops files which weren't written this run, replayed files already had the output mode applied
+			// but go through it again so they count towards the pack size
+			final var replay = incremental.outputMode.apply(output);
+			for (final var entry : decision.outputs().entrySet()) {
+				try {
+					replay.writeIfNeeded(entry.getKey(), entry.getValue(), IncrementalDatagen.hash(entry.getValue()));
+				} catch (final IOException exception) {
+					return CompletableFuture.failedFuture(exception);
+				}
+			}
+			return CompletableFuture.completedFuture(null);
+		}
+
+		final var written = new ConcurrentHashMap<Path, HashCode>();
+		final long start = System.nanoTime();
+		// The mode applies before recording so the recorded hashes match what ends up on disk
+		return provider.run(incremental.outputMode.apply((path, data, hash) -> {
+			output.writeIfNeeded(path, data, hash);
+			written.put(path, hash);
+		})).thenRun(() -> incremental.ran(this, written, System.nanoTime() - start));
+	}
+
+	@Override
+	public String getName() {
+		return provider.getName();
+	}
+}
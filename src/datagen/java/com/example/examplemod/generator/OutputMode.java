@@ -0,0 +1,102 @@
+package com.example.examplemod.generator;
+
+import com.example.examplemod.ExampleMod;
+import com.google.gson.*;
+
+import net.minecraft.data.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * How generated files end up on disk. By default files are written as the providers produce them, pretty printed JSON. The
+ * {@value #MINIFY_PROPERTY} system property strips the whitespace from every JSON file and setting
+ * {@value #RECIPE_ADVANCEMENTS_PROPERTY} to false drops the advancements unlocking recipes in the recipe book.
+ * <p>
+ * Both are set by the datagen run, see the build script.
+ */
+public final class OutputMode {
+
+	public static final String MINIFY_PROPERTY = "examplemod.datagen.minify";
+	public static final String RECIPE_ADVANCEMENTS_PROPERTY = "examplemod.datagen.recipeAdvancements";
+
+	private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+
+	private final boolean minify;
+	private final boolean recipeAdvancements;
+	private final AtomicLong files = new AtomicLong();
+	private final AtomicLong bytes = new AtomicLong();
+	private final AtomicLong saved = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+
+	/**
+	 * @param minify             If JSON should be written without whitespace
+	 * @param recipeAdvancements If recipe unlock advancements should be written
+	 */
+	public OutputMode(final boolean minify, final boolean recipeAdvancements) {
+		this.minify = minify;
+		this.recipeAdvancements = recipeAdvancements;
+	}
+
+	public static OutputMode fromSystemProperties() {
+		return new OutputMode(Boolean.getBoolean(MINIFY_PROPERTY), Boolean.parseBoolean(System.getProperty(RECIPE_ADVANCEMENTS_PROPERTY, "true")));
+	}
+
+	/**
+	 * Applies this mode to everything written to the returned output. Files which are dropped never reach {@code output}
+	 */
+	public CachedOutput apply(final CachedOutput output) {
+		return (path, data, hash) -> {
+			if (!recipeAdvancements && isRecipeAdvancement(path)) {
+				dropped.incrementAndGet();
+				return;
+			}
+			byte[] written = data;
+			if (minify && path.getFileName().toString().endsWith(".json")) {
+				written = GSON.toJson(JsonParser.parseString(new String(data, StandardCharsets.UTF_8))).getBytes(StandardCharsets.UTF_8);
+			}
+			files.incrementAndGet();
+			bytes.addAndGet(written.length);
+			saved.addAndGet(data.length - written.length);
+			output.writeIfNeeded(path, written, written == data ? hash : IncrementalDatagen.hash(written));
+		};
+	}
+
+	private static boolean isRecipeAdvancement(final Path path) {
+		// data/<namespace>/advancement/recipes/...
+		final int count = path.getNameCount();
+		for (int i = 0; i + 1 < count; i++) {
+			if (path.getName(i).toString().equals("advancement") && path.getName(i + 1).toString().equals("recipes")) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * A provider logging the size of the generated pack, should be added last
+	 */
+	public DataProvider report() {
+		return new DataProvider() {
+			@Override
+			public CompletableFuture<?> run(final CachedOutput output) {
+				ExampleMod.LOG.info("Generated pack: {} files, {} bytes ({}), {} bytes saved by minifying, {} files dropped", files.get(),
+						bytes.get(), OutputMode.this, saved.get(), dropped.get());
+				return CompletableFuture.completedFuture(null);
+			}
+
+			@Override
+			public String getName() {
+				return "Generated pack size report";
+			}
+		};
+	}
+
+	/**
+	 * Part of every incremental fingerprint, changing the mode regenerates everything
+	 */
+	@Override
+	public String toString() {
+		return "minify=" + minify + ",recipeAdvancements=" + recipeAdvancements;
+	}
+}
@@ -0,0 +1,144 @@
+package com.example.examplemod.generator;
+
+import com.example.examplemod.ExampleMod;
+
+import net.minecraft.data.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a set of providers as a single provider, respecting the dependencies declared between them. Independent providers
+ * run concurrently on a bounded pool and a provider starts as soon as everything it depends on completed. Once done the
+ * critical path (the chain of providers which determined the total time) is logged.
+ * <p>
+ * The generator runs its own providers one after another, any provider added to the generator after the graph only starts
+ * once the whole graph is done. The generator also sees the graph as a single provider, so every file written by the graph
+ * is recorded in one {@code .cache} entry named after the graph rather than one per provider.
+ * <p>
+ * Providers sharing state which isn't thread safe, such as the {@link net.neoforged.neoforge.common.data.ExistingFileHelper},
+ * have to be ordered with a dependency.
+ */
+public final class ProviderGraph implements DataProvider {
+
+	private final String name;
+	private final List<Node> nodes;
+	private final int parallelism;
+
+	private ProviderGraph(final String name, final List<Node> nodes, final int parallelism) {
+		this.name = name;
+		this.nodes = nodes;
+		this.parallelism = parallelism;
+	}
+
+	public static Builder builder(final String name) {
+		return new Builder(name);
+	}
+
+	@Override
+	public CompletableFuture<?> run(final CachedOutput output) {
+		final var threadId = new AtomicInteger();
+		final var executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+			final var thread = new Thread(runnable, "Datagen-Graph-Worker-" + threadId.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		final long origin = System.nanoTime();
+		final var futures = new IdentityHashMap<Node, CompletableFuture<Void>>();
+		final var timings = new ConcurrentHashMap<Node, Timing>();
+		// Nodes were added after their dependencies so a single pass in order is enough
+		for (final var node : nodes) {
+			final var dependencies = node.dependencies.stream().map(futures::get).toArray(CompletableFuture[]::new);
+			futures.put(node, CompletableFuture.allOf(dependencies).thenComposeAsync(ignored -> {
+				final long start = System.nanoTime();
+				return node.provider.run(output).thenRun(() -> timings.put(node, new Timing(start - origin, System.nanoTime() - origin)));
+			}, executor));
+		}
+
+		return CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new))
+				.whenComplete((ignored, throwable) -> {
+					executor.shutdown();
+					if (throwable == null) report(timings, System.nanoTime() - origin);
+				});
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	private void report(final Map<Node, Timing> timings, final long totalNanos) {
+		// Walk back from the provider that finished last through whichever dependency finished last
+		final var criticalPath = new ArrayList<Node>();
+		var current = nodes.stream().max(Comparator.comparingLong(node -> timings.get(node).end)).orElse(null);
+		while (current != null) {
+			criticalPath.add(current);
+			current = current.dependencies.stream().max(Comparator.comparingLong(node -> timings.get(node).end)).orElse(null);
+		}
+		Collections.reverse(criticalPath);
+
+		ExampleMod.LOG.info("{} finished in {}ms with {} threads", name, totalNanos / 1_000_000D, parallelism);
+		for (final var node : nodes) {
+			final var timing = timings.get(node);
+			ExampleMod.LOG.info("  {}{} start={}ms took={}ms", criticalPath.contains(node) ? "* " : "  ", node.provider.getName(),
+					timing.start / 1_000_000D, (timing.end - timing.start) / 1_000_000D);
+		}
+		ExampleMod.LOG.info("Critical path (*): {}", String.join(" -> ", criticalPath.stream().map(node -> node.provider.getName()).toList()));
+	}
+
+	private record Node(DataProvider provider, List<Node> dependencies) {}
+
+	/**
+	 * @param start Nanoseconds from the start of the graph until the provider started
+	 * @param end   Nanoseconds from the start of the graph until the provider completed
+	 */
+	private record Timing(long start, long end) {}
+
+	public static final class Builder {
+
+		private final String name;
+		private final Map<DataProvider, Node> nodes = new LinkedHashMap<>();
+		private int parallelism = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+		private Builder(final String name) {
+			this.name = name;
+		}
+
+		/**
+		 * How many providers may run at once
+		 */
+		public Builder parallelism(final int parallelism) {
+			if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be at least 1, got " + parallelism);
+			this.parallelism = parallelism;
+			return this;
+		}
+
+		/**
+		 * Adds a provider which starts once all the given providers completed
+		 *
+		 * @param run          If the provider should run, dependencies which don't run count as done
+		 * @param dependencies Providers previously added to this graph
+		 *
+		 * @return The provider
+		 */
+		public <P extends DataProvider> P add(final boolean run, final P provider, final DataProvider... dependencies) {
+			final var dependencyNodes = new ArrayList<Node>(dependencies.length);
+			for (final var dependency : dependencies) {
+				if (!nodes.containsKey(dependency)) {
+					throw new IllegalArgumentException(dependency.getName() + " has to be added before " + provider.getName());
+				}
+				final var node = nodes.get(dependency);
+				if (node != null) dependencyNodes.add(node);
+			}
+			// Keep track of providers which won't run so providers depending on them can still be added
+			nodes.put(provider, run ? new Node(provider, List.copyOf(dependencyNodes)) : null);
+			return provider;
+		}
+
+		public ProviderGraph build() {
+			return new ProviderGraph(name, nodes.values().stream().filter(Objects::nonNull).toList(), parallelism);
+		}
+	}
+}
@@ -6,16 +6,26 @@ import com.google.common.base.Preconditions;
 import net.neoforged.neoforge.client.model.generators.*;
 import net.neoforged.neoforge.client.model.generators.ModelFile.UncheckedModelFile;
 import net.neoforged.neoforge.common.data.ExistingFileHelper;
+import net.neoforged.neoforge.registries.DeferredRegister;
 
 import net.minecraft.core.registries.BuiltInRegistries;
-import net.minecraft.data.PackOutput;
+import net.minecraft.data.*;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.level.ItemLike;
 
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
 public class BuiltInItemModels extends ItemModelProvider {
 
 	public static final UncheckedModelFile ITEM_GENERATED = new UncheckedModelFile("item/generated");
 
+	private int bulkLeaves;
+	private int bulkParents;
+
 	public BuiltInItemModels(final PackOutput packOutput, final ExistingFileHelper existingFileHelper) {
 		super(packOutput, ExampleMod.MOD_ID, existingFileHelper);
 	}
@@ -26,6 +36,71 @@ public class BuiltInItemModels extends ItemModelProvider {
 		// basicItem(ExampleModItems.EXAMPLE_ITEM.asItem());
 		// but the example item uses the debug texture so we do
 		getBuilder(ExampleModItems.EXAMPLE_ITEM).parent(ITEM_GENERATED).texture("layer0", mcLoc("block/debug"));
+
+		// Everything else gets a generated model using the texture named after it
+		bulkModels(ExampleModItems.ITEMS, item -> ModelPattern.generated(modLoc("item/" + BuiltInRegistries.ITEM.getKey(item).getPath())));
+	}
+
+	@Override
+	public CompletableFuture<?> run(final CachedOutput output) {
+		final var files = new AtomicLong();
+		final var bytes = new AtomicLong();
+		return super.run((path, data, hash) -> {
+			output.writeIfNeeded(path, data, hash);
+			files.incrementAndGet();
+			bytes.addAndGet(data.length);
+		}).thenRun(() -> ExampleMod.LOG.info("{}: {} model files, {} bytes ({} bulk models sharing {} generated parents)", getName(),
+				files.get(), bytes.get(), bulkLeaves, bulkParents));
+	}
+
+	/**
+	 * Generates models for every item of the register which doesn't have one yet, so this should run after any hand written
+	 * models. Items with the same parent and texture keys are grouped and the textures the whole group has in common are
+	 * moved into a generated parent model, leaving each item's model with only the textures which differ.
+	 *
+	 * @param pattern The model of an item
+	 */
+	protected void bulkModels(final DeferredRegister.Items items, final Function<Item, ModelPattern> pattern) {
+		final var groups = new LinkedHashMap<GroupKey, List<Leaf>>();
+		for (final var holder : items.getEntries()) {
+			final var location = extendWithFolder(holder.getId());
+			if (generatedModels.containsKey(location)) continue;
+			final var model = pattern.apply(holder.get());
+			groups.computeIfAbsent(new GroupKey(model.parent, model.textures.keySet()), key -> new ArrayList<>()).add(new Leaf(location, model));
+		}
+
+		groups.forEach((key, leaves) -> {
+			final var shared = new LinkedHashMap<>(leaves.getFirst().model.textures);
+			for (final var leaf : leaves) {
+				shared.entrySet().removeIf(entry -> !entry.getValue().equals(leaf.model.textures.get(entry.getKey())));
+			}
+
+			ModelFile parent = new UncheckedModelFile(key.parent);
+			// A parent only pays off if it actually takes something out of the models
+			if (leaves.size() > 1 && !shared.isEmpty()) {
+				// Numbered in generation order, names derived from the textures could collide and silently merge two parents
+				final var parentLocation = nextParentLocation(key.parent);
+				final var parentBuilder = getBuilder(parentLocation).parent(parent);
+				shared.forEach(parentBuilder::texture);
+				parent = parentBuilder;
+				bulkParents++;
+			}
+
+			for (final var leaf : leaves) {
+				final var builder = getBuilder(leaf.location).parent(parent);
+				leaf.model.textures.forEach((textureKey, texture) -> {
+					if (!shared.containsKey(textureKey)) builder.texture(textureKey, texture);
+				});
+				bulkLeaves++;
+			}
+		});
+	}
+
+	private ResourceLocation nextParentLocation(final ResourceLocation parent) {
+		final String prefix = "item/parent/" + parent.getPath().replace('/', '_') + "_";
+		int index = bulkParents;
+		while (generatedModels.containsKey(modLoc(prefix + index))) index++;
+		return modLoc(prefix + index);
 	}
 
 	/**
@@ -34,13 +109,17 @@ public class BuiltInItemModels extends ItemModelProvider {
 	@Override
 	public ItemModelBuilder getBuilder(final String path) {
 		Preconditions.checkNotNull(path, "Path must not be null");
-		final ResourceLocation outputLoc = extendWithFolder(path.contains(":") ? mcLoc(path) : modLoc(path));
+		return getBuilder(path.contains(":") ? mcLoc(path) : modLoc(path));
+	}
+
+	public ItemModelBuilder getBuilder(final ResourceLocation location) {
+		final ResourceLocation outputLoc = extendWithFolder(location);
 		existingFileHelper.trackGenerated(outputLoc, MODEL);
 		return generatedModels.computeIfAbsent(outputLoc, factory);
 	}
 
 	public ItemModelBuilder getBuilder(final ItemLike itemLike) {
-		return getBuilder(BuiltInRegistries.ITEM.getKey(itemLike.asItem()).toString());
+		return getBuilder(BuiltInRegistries.ITEM.getKey(itemLike.asItem()));
 	}
 
 	/**
@@ -50,4 +129,30 @@ public class BuiltInItemModels extends ItemModelProvider {
 		if (location.getPath().startsWith(folder)) return location;
 		return location.withPrefix(folder + "/");
 	}
-}
\ No newline at end of file
+
+	/**
+	 * What an item's model should look like for {@link #bulkModels(DeferredRegister.Items, Function)}
+	 *
+	 * @param parent   The parent model
+	 * @param textures Texture key to texture, in the order they should be written
+	 */
+	public record ModelPattern(ResourceLocation parent, SequencedMap<String, ResourceLocation> textures) {
+
+		private static final ResourceLocation GENERATED = ResourceLocation.withDefaultNamespace("item/generated");
+
+		/**
+		 * @param layers Textures for {@code layer0}, {@code layer1} and so on
+		 */
+		public static ModelPattern generated(final ResourceLocation... layers) {
+			final var textures = new LinkedHashMap<String, ResourceLocation>();
+			for (int i = 0; i < layers.length; i++) {
+				textures.put("layer" + i, layers[i]);
+			}
+			return new ModelPattern(GENERATED, textures);
+		}
+	}
+
+	private record GroupKey(ResourceLocation parent, Set<String> textureKeys) {}
+
+	private record Leaf(ResourceLocation location, ModelPattern model) {}
+}
@@ -0,0 +1,115 @@
+package com.example.examplemod.gametest;
+
+import com.example.examplemod.ExampleMod;
+import com.example.examplemod.common.item.ExampleModItems;
+import com.example.examplemod.network.*;
+import io.netty.buffer.Unpooled;
+import net.neoforged.neoforge.gametest.*;
+import net.neoforged.neoforge.network.connection.ConnectionType;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.*;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.protocol.common.ServerboundCustomPayloadPacket;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.InteractionHand;
+import net.minecraft.world.entity.*;
+
+import java.util.*;
+
+/**
+ * Tick time regression scenarios, run by the {@code gameTest} run. Each scenario is in its own batch so it has the server
+ * to itself while it's measured. Budgets are deliberately loose, they're meant to catch regressions not to tune against.
+ * See {@link TickBudget} for overriding them.
+ */
+@GameTestHolder(ExampleMod.MOD_ID)
+@PrefixGameTestTemplate(false)
+public final class ExampleModPerformanceTests {
+
+	private static final String TEMPLATE = "perf_platform";
+	private static final int WARMUP_TICKS = 20;
+
+	/**
+	 * Many players using the example item every tick, each sending the payload a client sends on use. Payloads are encoded
+	 * with a dictionary per player and decoded again before they're handed to the player's connection, so the first use
+	 * defines the component and every use after references it
+	 */
+	@GameTest(template = TEMPLATE, batch = "examplemod_perf_item_use", timeoutTicks = 400)
+	public static void itemUse(final GameTestHelper helper) {
+		final var players = mockPlayers(helper, 50);
+		players.forEach(player -> player.setItemInHand(InteractionHand.MAIN_HAND, ExampleModItems.EXAMPLE_ITEM.toStack()));
+		final var dictionaries = new ArrayList<ComponentDictionary.ClientTable>(players.size());
+		players.forEach(player -> dictionaries.add(new ComponentDictionary.ClientTable()));
+		final var component = Component.literal("Used the example item");
+		TickSampler.run(helper, "itemUse", WARMUP_TICKS, 200, new TickBudget(20, 45), tick -> {
+			for (int i = 0; i < players.size(); i++) {
+				final var player = players.get(i);
+				player.gameMode.useItem(player, helper.getLevel(), player.getMainHandItem(), InteractionHand.MAIN_HAND);
+				receive(player, new ExampleServerboundPacket(component, dictionaries.get(i)));
+			}
+		}, () -> removePlayers(helper, players));
+	}
+
+	/**
+	 * Many entities being sent to many players every tick, both through the batcher and the shared broadcast
+	 */
+	@GameTest(template = TEMPLATE, batch = "examplemod_perf_clientbound", timeoutTicks = 400)
+	public static void clientboundFanOut(final GameTestHelper helper) {
+		final var players = mockPlayers(helper, 20);
+		final var entities = new ArrayList<Entity>();
+		for (int i = 0; i < 200; i++) {
+			final var entity = helper.spawn(EntityType.ARMOR_STAND, new BlockPos(1 + i % 14, 1, 1 + i / 14 % 14));
+			entity.setNoGravity(true);
+			entities.add(entity);
+		}
+		TickSampler.run(helper, "clientboundFanOut", WARMUP_TICKS, 200, new TickBudget(20, 45), tick -> {
+			for (final var entity : entities) {
+				PayloadBroadcaster.sendToPlayersTrackingEntity(entity, new ExampleClientboundPacket(entity.getId()));
+				for (final var player : players) {
+					ClientboundBatcher.queue(player, entity.getId());
+				}
+			}
+		}, () -> removePlayers(helper, players));
+	}
+
+	/**
+	 * A long idle run, measures the per tick overhead of our tick handlers and the scheduled tasks
+	 */
+	@GameTest(template = TEMPLATE, batch = "examplemod_perf_scheduler", timeoutTicks = 1300)
+	public static void scheduledTicks(final GameTestHelper helper) {
+		TickSampler.run(helper, "scheduledTicks", WARMUP_TICKS, 1200, new TickBudget(10, 30), tick -> {}, () -> {});
+	}
+
+	/**
+	 * Round trips the payload through its codec and hands the packet to the player's connection as if it was just decoded
+	 */
+	private static void receive(final ServerPlayer player, final ExampleServerboundPacket payload) {
+		final var buffer = new RegistryFriendlyByteBuf(Unpooled.buffer(), player.registryAccess(), ConnectionType.NEOFORGE);
+		try {
+			ExampleServerboundPacket.CODEC.encode(buffer, payload);
+			final var decoded = ExampleServerboundPacket.CODEC.decode(buffer);
+			player.connection.getConnection().channel().pipeline().fireChannelRead(new ServerboundCustomPayloadPacket(decoded));
+		} finally {
+			buffer.release();
+		}
+	}
+
+	private static List<ServerPlayer> mockPlayers(final GameTestHelper helper, final int count) {
+		final var players = new ArrayList<ServerPlayer>(count);
+		for (int i = 0; i < count; i++) {
+			final var player = helper.makeMockServerPlayerInLevel();
+			player.moveTo(helper.absoluteVec(new BlockPos(1 + i % 14, 1, 1 + i / 14).getCenter()));
+			players.add(player);
+		}
+		return players;
+	}
+
+	/**
+	 * Mock players stay in the player list after the test, log them out so the next scenario doesn't pay for them
+	 */
+	private static void removePlayers(final GameTestHelper helper, final List<ServerPlayer> players) {
+		final var playerList = helper.getLevel().getServer().getPlayerList();
+		players.forEach(playerList::remove);
+	}
+}
@@ -0,0 +1,24 @@
+package com.example.examplemod.gametest;
+
+/**
+ * How much tick time a performance scenario may use. Budgets can be overridden with the
+ * {@code examplemod.gametest.<scenario>.averageMillis} and {@code examplemod.gametest.<scenario>.p99Millis} system
+ * properties, or all scaled at once with {@value #SCALE_PROPERTY} for slower CI machines
+ *
+ * @param averageMillis The highest allowed average tick time
+ * @param p99Millis     The highest allowed 99th percentile tick time
+ */
+public record TickBudget(double averageMillis, double p99Millis) {
+
+	public static final String SCALE_PROPERTY = "examplemod.gametest.budgetScale";
+
+	/**
+	 * @return The budget for the scenario after applying overrides
+	 */
+	public TickBudget forScenario(final String scenario) {
+		final double scale = Double.parseDouble(System.getProperty(SCALE_PROPERTY, "1"));
+		final String prefix = "examplemod.gametest." + scenario + ".";
+		return new TickBudget(Double.parseDouble(System.getProperty(prefix + "averageMillis", Double.toString(averageMillis))) * scale,
+				Double.parseDouble(System.getProperty(prefix + "p99Millis", Double.toString(p99Millis))) * scale);
+	}
+}
@@ -0,0 +1,92 @@
+package com.example.examplemod.gametest;
+
+import com.example.examplemod.ExampleMod;
+
+import net.minecraft.gametest.framework.GameTestHelper;
+
+import java.util.Arrays;
+
+import static com.example.examplemod.profiling.LatencyHistogram.Stats.formatNanos;
+
+/**
+ * Drives a performance scenario. Runs the scenario's work every tick, ignores the first ticks while things warm up, then
+ * samples the server's tick time and passes or fails the test against a {@link TickBudget}.
+ * <p>
+ * The tick time covers the whole server, scenarios should be in their own batch so other tests don't run alongside them.
+ * Every measured tick is kept, so the percentiles checked against the budget are exact.
+ */
+public final class TickSampler {
+
+	private final GameTestHelper helper;
+	private final String scenario;
+	private final int warmupTicks;
+	private final int measuredTicks;
+	private final TickBudget budget;
+	/**
+	 * The time of every measured tick, in nanoseconds
+	 */
+	private final long[] tickTimes;
+	private int ticks;
+
+	private TickSampler(final GameTestHelper helper, final String scenario, final int warmupTicks, final int measuredTicks,
+			final TickBudget budget) {
+		this.helper = helper;
+		this.scenario = scenario;
+		this.warmupTicks = warmupTicks;
+		this.measuredTicks = measuredTicks;
+		this.budget = budget.forScenario(scenario);
+		this.tickTimes = new long[measuredTicks];
+	}
+
+	/**
+	 * Starts the scenario, the test timeout must be larger than {@code warmupTicks + measuredTicks}
+	 *
+	 * @param work    Runs every tick, the tick number is counted from the start of the scenario
+	 * @param cleanup Runs once the scenario is done, before the test passes or fails
+	 */
+	public static void run(final GameTestHelper helper, final String scenario, final int warmupTicks, final int measuredTicks,
+			final TickBudget budget, final TickWork work, final Runnable cleanup) {
+		final var sampler = new TickSampler(helper, scenario, warmupTicks, measuredTicks, budget);
+		helper.onEachTick(() -> sampler.tick(work, cleanup));
+	}
+
+	private void tick(final TickWork work, final Runnable cleanup) {
+		if (ticks > warmupTicks + measuredTicks) return;
+		// The tick that just completed, the current one is still running
+		if (ticks > warmupTicks) {
+			final var server = helper.getLevel().getServer();
+			final long[] serverTickTimes = server.getTickTimesNanos();
+			tickTimes[ticks - warmupTicks - 1] = serverTickTimes[Math.floorMod(server.getTickCount() - 1, serverTickTimes.length)];
+		}
+		if (ticks == warmupTicks + measuredTicks) {
+			cleanup.run();
+			finish();
+		} else {
+			work.tick(ticks);
+		}
+		ticks++;
+	}
+
+	private void finish() {
+		final long[] sorted = tickTimes.clone();
+		Arrays.sort(sorted);
+		final double averageMillis = Arrays.stream(sorted).sum() / (double) sorted.length / 1_000_000D;
+		// Nearest rank, the smallest tick time at least 99% of the ticks don't exceed
+		final long p99 = sorted[(int) Math.ceil(sorted.length * 0.99) - 1];
+		final double p99Millis = p99 / 1_000_000D;
+		final String summary = String.format("%s over %d ticks: average=%.2fms (budget %.2fms) p99=%s (budget %.2fms) max=%s", scenario,
+				sorted.length, averageMillis, budget.averageMillis(), formatNanos(p99), budget.p99Millis(), formatNanos(sorted[sorted.length - 1]));
+		ExampleMod.LOG.info("Performance scenario {}", summary);
+		if (averageMillis > budget.averageMillis() || p99Millis > budget.p99Millis()) {
+			helper.fail("Over budget: " + summary);
+		} else {
+			helper.succeed();
+		}
+	}
+
+	@FunctionalInterface
+	public interface TickWork {
+
+		void tick(int tick);
+	}
+}
@@ -0,0 +1,36 @@
+package com.example.examplemod;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.*;
+
+/**
+ * Runs the JMH benchmarks inside the FML unit test environment so they can use registries, items and codecs. JMH can't
+ * fork into a new JVM without losing the bootstrapped game so everything runs in this one, keep that in mind when
+ * comparing numbers with other JMH results.
+ * <p>
+ * Run with {@code ./gradlew jmh}, pass {@code -Pjmh.include=<regex>} to only run some benchmarks. Results are written as
+ * JSON to the path in the {@value #RESULTS_PROPERTY} system property.
+ */
+final class ExampleModBenchmarks {
+
+	private static final String RESULTS_PROPERTY = "examplemod.jmh.results";
+	private static final String INCLUDE_PROPERTY = "examplemod.jmh.include";
+
+	@Test
+	void runBenchmarks() throws Exception {
+		final var results = Path.of(System.getProperty(RESULTS_PROPERTY, "jmh-results.json"));
+		Files.createDirectories(results.toAbsolutePath().getParent());
+		final var options = new OptionsBuilder().include(System.getProperty(INCLUDE_PROPERTY, "com\\.example\\.examplemod\\..*"))
+				.forks(0)
+				.addProfiler(GCProfiler.class)
+				.resultFormat(ResultFormatType.JSON)
+				.result(results.toString())
+				.build();
+		new Runner(options).run();
+	}
+}
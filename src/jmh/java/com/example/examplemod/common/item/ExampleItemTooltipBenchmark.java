@@ -0,0 +1,43 @@
+package com.example.examplemod.common.item;
+
+import org.openjdk.jmh.annotations.*;
+
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.item.*;
+import net.minecraft.world.item.Item.TooltipContext;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link ExampleItem#appendHoverText} against building the line from scratch like it used to
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ExampleItemTooltipBenchmark {
+
+	private final List<Component> tooltip = new ArrayList<>();
+	private ItemStack stack;
+
+	@Setup
+	public void setup() {
+		stack = ExampleModItems.EXAMPLE_ITEM.toStack();
+	}
+
+	@Benchmark
+	public List<Component> appendHoverText() {
+		tooltip.clear();
+		stack.getItem().appendHoverText(stack, TooltipContext.EMPTY, tooltip, TooltipFlag.NORMAL);
+		return tooltip;
+	}
+
+	@Benchmark
+	public List<Component> uncached() {
+		tooltip.clear();
+		tooltip.add(Component.translatable(ExampleItem.EXAMPLE_TOOLTIP));
+		return tooltip;
+	}
+}
@@ -0,0 +1,78 @@
+package com.example.examplemod.common.recipe;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RecipeIndex} lookups against the linear scan the recipe manager does, with welding shaped synthetic recipes.
+ * Large modpacks ship a few thousand recipes of the common TFC types
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RecipeIndexBenchmark {
+
+	@Param({"10", "100", "1000", "10000"})
+	public int recipeCount;
+
+	private List<Recipe> recipes;
+	private RecipeIndex<Key, Recipe> index;
+	private Key[] lookups;
+	private int next;
+
+	@Setup
+	public void setup() {
+		final var random = new Random(42);
+		final var builder = RecipeIndex.<Key, Recipe>builder();
+		recipes = new ArrayList<>(recipeCount);
+		for (int i = 0; i < recipeCount; i++) {
+			final var recipe = new Recipe(random.nextInt(recipeCount * 4), random.nextInt(recipeCount * 4));
+			recipes.add(recipe);
+			builder.add(recipe, List.of(new Key(recipe.first, recipe.second), new Key(recipe.second, recipe.first)));
+		}
+		index = builder.build();
+
+		// Half of the lookups hit a recipe, the other half miss like most inputs sitting in an anvil do
+		lookups = new Key[1024];
+		for (int i = 0; i < lookups.length; i++) {
+			final var recipe = recipes.get(random.nextInt(recipeCount));
+			lookups[i] = i % 2 == 0 ? new Key(recipe.first, recipe.second) : new Key(-1 - i, recipe.second);
+		}
+	}
+
+	@Benchmark
+	public void scan(final Blackhole blackhole) {
+		final var key = nextKey();
+		for (final var recipe : recipes) {
+			if (recipe.matches(key)) {
+				blackhole.consume(recipe);
+				return;
+			}
+		}
+		blackhole.consume(null);
+	}
+
+	@Benchmark
+	public void index(final Blackhole blackhole) {
+		final var key = nextKey();
+		blackhole.consume(index.find(key, recipe -> recipe.matches(key)));
+	}
+
+	private Key nextKey() {
+		return lookups[next++ & lookups.length - 1];
+	}
+
+	private record Key(int first, int second) {}
+
+	private record Recipe(int first, int second) {
+
+		private boolean matches(final Key key) {
+			return first == key.first && second == key.second || first == key.second && second == key.first;
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package com.example.examplemod.config;
+
+import com.electronwill.nightconfig.core.CommentedConfig;
+import net.neoforged.fml.config.IConfigSpec;
+import net.neoforged.neoforge.common.ModConfigSpec;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading config values through {@link ModConfigSpec.ConfigValue#get()} against reading them from a snapshot
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ConfigReadBenchmark {
+
+	private ServerConfig config;
+
+	@Setup
+	public void setup() {
+		// The real server config is only loaded with a world, load a copy from memory instead
+		final var pair = new ModConfigSpec.Builder().configure(ServerConfig::new);
+		final var loaded = CommentedConfig.inMemory();
+		pair.getRight().correct(loaded);
+		pair.getRight().acceptConfig(new IConfigSpec.ILoadedConfig() {
+			@Override
+			public CommentedConfig config() {
+				return loaded;
+			}
+
+			@Override
+			public void save() {
+			}
+		});
+		config = pair.getLeft();
+		config.updateSpec(pair.getRight());
+	}
+
+	@Benchmark
+	public long configValue() {
+		return config.tickSchedulerBudgetMicros.get() * 1_000L + config.maxQueuedPayloadsPerPlayer.get()
+				+ (long) (double) config.serverboundPayloadsPerSecond.get();
+	}
+
+	@Benchmark
+	public long snapshot() {
+		final var snapshot = config.snapshot();
+		return snapshot.tickSchedulerBudgetNanos() + snapshot.maxQueuedPayloadsPerPlayer() + (long) snapshot.serverboundPayloadsPerSecond();
+	}
+}
@@ -0,0 +1,108 @@
+package com.example.examplemod.network;
+
+import io.netty.buffer.*;
+import net.neoforged.neoforge.network.connection.ConnectionType;
+import org.openjdk.jmh.annotations.*;
+
+import net.minecraft.ChatFormatting;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.chat.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode throughput of our payload codecs. Run with the GC profiler for allocation per operation
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PacketCodecBenchmark {
+
+	private final ByteBuf buffer = Unpooled.buffer(256);
+	private RegistryFriendlyByteBuf registryBuffer;
+	private ExampleClientboundPacket clientbound;
+	private ByteBuf encodedClientbound;
+	private ExampleServerboundPacket serverbound;
+	private ByteBuf encodedServerbound;
+	private byte[] encodedComponent;
+	private RegistryAccess registryAccess;
+
+	@Setup
+	public void setup() {
+		registryAccess = RegistryAccess.fromRegistryOfRegistries(BuiltInRegistries.REGISTRY);
+		registryBuffer = new RegistryFriendlyByteBuf(buffer, registryAccess, ConnectionType.NEOFORGE);
+
+		clientbound = new ExampleClientboundPacket(123_456);
+		encodedClientbound = Unpooled.buffer();
+		ExampleClientboundPacket.CODEC.encode(encodedClientbound, clientbound);
+
+		final var component = Component.literal("This component went over the network").withStyle(ChatFormatting.GOLD);
+		serverbound = new ExampleServerboundPacket(component);
+		// The first encode defines the component in the dictionary, keep those bytes around to benchmark decoding a definition
+		ComponentDictionary.resetClient();
+		encodedServerbound = Unpooled.buffer();
+		ExampleServerboundPacket.CODEC.encode(new RegistryFriendlyByteBuf(encodedServerbound, registryAccess, ConnectionType.NEOFORGE),
+				serverbound);
+
+		final var componentBuffer = new RegistryFriendlyByteBuf(Unpooled.buffer(), registryAccess, ConnectionType.NEOFORGE);
+		ComponentSerialization.STREAM_CODEC.encode(componentBuffer, component);
+		encodedComponent = new byte[componentBuffer.readableBytes()];
+		componentBuffer.readBytes(encodedComponent);
+	}
+
+	@TearDown
+	public void tearDown() {
+		ComponentDictionary.resetClient();
+	}
+
+	@Benchmark
+	public ByteBuf encodeClientbound() {
+		buffer.clear();
+		ExampleClientboundPacket.CODEC.encode(buffer, clientbound);
+		return buffer;
+	}
+
+	@Benchmark
+	public ExampleClientboundPacket decodeClientbound() {
+		return ExampleClientboundPacket.CODEC.decode(encodedClientbound.duplicate());
+	}
+
+	/**
+	 * The steady state, the component is already in the dictionary so only its id is written
+	 */
+	@Benchmark
+	public ByteBuf encodeServerboundReference() {
+		registryBuffer.clear();
+		ExampleServerboundPacket.CODEC.encode(registryBuffer, serverbound);
+		return registryBuffer;
+	}
+
+	/**
+	 * First send of a component, includes resetting the dictionary so every operation has to define it again
+	 */
+	@Benchmark
+	public ByteBuf encodeServerboundDefinition() {
+		ComponentDictionary.resetClient();
+		registryBuffer.clear();
+		ExampleServerboundPacket.CODEC.encode(registryBuffer, serverbound);
+		return registryBuffer;
+	}
+
+	/**
+	 * Decoding a definition only copies the component bytes, see {@link #decodeComponent()} for the deferred part
+	 */
+	@Benchmark
+	public ExampleServerboundPacket decodeServerboundDefinition() {
+		return ExampleServerboundPacket.CODEC.decode(
+				new RegistryFriendlyByteBuf(encodedServerbound.duplicate(), registryAccess, ConnectionType.NEOFORGE));
+	}
+
+	@Benchmark
+	public Component decodeComponent() {
+		return ComponentDictionary.decode(encodedComponent, registryAccess, ConnectionType.NEOFORGE);
+	}
+}
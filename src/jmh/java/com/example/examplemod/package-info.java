@@ -0,0 +1,6 @@
+@FieldsAreNonnullByDefault @MethodsReturnNonnullByDefault @ParametersAreNonnullByDefault
+package com.example.examplemod;
+
+import net.minecraft.*;
+
+import javax.annotation.ParametersAreNonnullByDefault;
\ No newline at end of file
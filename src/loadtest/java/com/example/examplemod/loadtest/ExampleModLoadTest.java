@@ -0,0 +1,39 @@
+package com.example.examplemod.loadtest;
+
+import com.example.examplemod.ExampleMod;
+import com.example.examplemod.profiling.HandlerProfiler;
+import net.neoforged.bus.api.*;
+import net.neoforged.fml.common.Mod;
+import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.event.RegisterCommandsEvent;
+import net.neoforged.neoforge.event.server.ServerStoppingEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+
+import java.util.function.Consumer;
+
+/**
+ * Hooks the {@link PayloadLoadGenerator} into the server, only present in the {@code loadTestServer} run. The mod itself
+ * knows nothing about the load generator, it only sees the payloads and connections it creates.
+ */
+@Mod(ExampleMod.MOD_ID)
+public final class ExampleModLoadTest {
+
+	public ExampleModLoadTest() {
+		final var eventBus = NeoForge.EVENT_BUS;
+		// Ahead of ExampleModForgeEvents.onServerTickStart, which drains the work the payload handlers queued up
+		addListener(eventBus, EventPriority.HIGHEST, ServerTickEvent.Pre.class, "ExampleModLoadTest.onServerTickStart",
+				event -> PayloadLoadGenerator.beforeDrain());
+		// After ExampleModForgeEvents.onServerTick, which flushes the replies
+		addListener(eventBus, EventPriority.LOWEST, ServerTickEvent.Post.class, "ExampleModLoadTest.onServerTick",
+				event -> PayloadLoadGenerator.afterFlush());
+		// Finish the load run while the world is still there to clean up after it
+		HandlerProfiler.addListener(eventBus, ServerStoppingEvent.class, "ExampleModLoadTest.onServerStopping", event -> PayloadLoadGenerator.stop());
+		HandlerProfiler.addListener(eventBus, RegisterCommandsEvent.class, "ExampleModLoadTest.onRegisterCommands",
+				event -> LoadTestCommands.register(event.getDispatcher()));
+	}
+
+	private static <E extends Event> void addListener(final IEventBus eventBus, final EventPriority priority, final Class<E> eventType,
+			final String name, final Consumer<E> handler) {
+		eventBus.addListener(priority, false, eventType, HandlerProfiler.wrap(name, handler, event -> null));
+	}
+}
@@ -0,0 +1,45 @@
+package com.example.examplemod.loadtest;
+
+import com.example.examplemod.ExampleMod;
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.*;
+
+import net.minecraft.commands.*;
+import net.minecraft.network.chat.Component;
+
+public final class LoadTestCommands {
+
+	/**
+	 * Adds {@code loadtest} to the {@code /examplemod} command, brigadier merges it into the mod's own literal
+	 */
+	public static void register(final CommandDispatcher<CommandSourceStack> dispatcher) {
+		dispatcher.register(Commands.literal(ExampleMod.MOD_ID)
+				// Same requirement as ExampleModCommands, whichever registers first decides it for the whole literal
+				.requires(source -> source.hasPermission(2))
+				.then(Commands.literal("loadtest")
+						// Spins up mock players, connections and threads on the server, owners only
+						.requires(source -> source.hasPermission(4))
+						.then(Commands.literal("stop").executes(context -> {
+							PayloadLoadGenerator.stop();
+							return 1;
+						}))
+						.then(Commands.argument("clients", IntegerArgumentType.integer(1, 1_000))
+								.then(Commands.argument("payloadsPerSecond", DoubleArgumentType.doubleArg(0.1, 1_000))
+										.then(Commands.argument("seconds", IntegerArgumentType.integer(1, 3_600))
+												.executes(context -> loadTest(context.getSource(), IntegerArgumentType.getInteger(context, "clients"),
+														DoubleArgumentType.getDouble(context, "payloadsPerSecond"),
+														IntegerArgumentType.getInteger(context, "seconds"))))))));
+	}
+
+	private static int loadTest(final CommandSourceStack source, final int clients, final double payloadsPerSecond, final int seconds) {
+		final boolean started = PayloadLoadGenerator.start(source.getServer(), clients, payloadsPerSecond, seconds,
+				line -> source.sendSuccess(() -> Component.literal(line), true));
+		if (!started) {
+			source.sendFailure(Component.literal("A load run is already in progress"));
+			return 0;
+		}
+		source.sendSuccess(() -> Component.literal(String.format("Started load run with %d clients sending %.1f payloads/s each for %ds", clients,
+				payloadsPerSecond, seconds)), true);
+		return 1;
+	}
+}
@@ -0,0 +1,443 @@
+package com.example.examplemod.loadtest;
+
+import com.example.examplemod.ExampleMod;
+import com.example.examplemod.ExampleModLog;
+import com.example.examplemod.network.*;
+import com.example.examplemod.profiling.LatencyHistogram;
+import com.mojang.authlib.GameProfile;
+import io.netty.bootstrap.*;
+import io.netty.buffer.*;
+import io.netty.channel.*;
+import io.netty.channel.local.*;
+import net.neoforged.neoforge.network.connection.ConnectionType;
+import net.neoforged.neoforge.network.registration.NetworkRegistry;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.network.*;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.*;
+import net.minecraft.network.protocol.common.ClientboundCustomPayloadPacket;
+import net.minecraft.network.protocol.common.ServerboundCustomPayloadPacket;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.network.protocol.game.*;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.network.*;
+import net.minecraft.world.level.storage.LevelResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.Consumer;
+
+import static com.example.examplemod.profiling.LatencyHistogram.Stats.formatNanos;
+
+/**
+ * In JVM load generator for the payload pipeline. Every simulated client is a real {@link Connection} at the end of a netty
+ * {@link LocalChannel}, configured like a player's: payloads are written as framed bytes, split, decoded and handled on
+ * the connection's event loop the same way a network thread would. Sender threads write the bytes a real client would
+ * send, with a {@link ComponentDictionary.ClientTable} of their own so the client's dictionary is left alone. Replies are
+ * read at the client's end: what the server writes is split into frames, decoded with the clientbound game protocol and
+ * bundles are put back together, like a real client's pipeline does. Batched, bundled and shared replies all count.
+ * <p>
+ * The mock players are never placed in the {@link net.minecraft.server.players.PlayerList}, so they aren't saved, don't
+ * show up to other players and never log in or out. Their ids are derived from their index, running with the same client
+ * count again reuses them.
+ * <p>
+ * A reply only names the player, so it acknowledges every payload sent before the server thread last drained its queue as
+ * of when the client received it. Latency runs from the send until the client received the reply. Keep the rate under the
+ * rate limiter's or the latency numbers include throttled payloads, the report shows how many were throttled during the
+ * run.
+ */
+public final class PayloadLoadGenerator {
+
+	/**
+	 * Payloads that haven't been answered after this long count as lost
+	 */
+	private static final long LOST_AFTER_NANOS = TimeUnit.SECONDS.toNanos(5);
+	/**
+	 * How long a simulated client may take to connect
+	 */
+	private static final long CONNECT_TIMEOUT_SECONDS = 5;
+	private static final ExampleModLog.CallSite SEND_FAILED = ExampleModLog.warn("Simulated client {} failed to send");
+	private static final ExampleModLog.CallSite DECODE_FAILED = ExampleModLog.warn("Simulated client {} failed to decode what the server sent");
+	private static final ExampleModLog.CallSite CLEANUP_FAILED = ExampleModLog.warn("Failed to delete {} left behind by a simulated client");
+
+	@Nullable
+	private static volatile PayloadLoadGenerator running;
+
+	private final MinecraftServer server;
+	private final EventLoopGroup group;
+	private final Channel serverChannel;
+	private final BlockingQueue<Connection> accepted = new LinkedBlockingQueue<>();
+	private final List<SimulatedClient> clients = new ArrayList<>();
+	private final ScheduledExecutorService senders;
+	private final long endTick;
+	private final Consumer<String> output;
+	private final LatencyHistogram latency = new LatencyHistogram();
+	private final LatencyHistogram tickTimes = new LatencyHistogram();
+	private final LongAdder sent = new LongAdder();
+	private final LongAdder acknowledged = new LongAdder();
+	private final LongAdder lost = new LongAdder();
+	private final LongAdder repliesReceived = new LongAdder();
+	private final LongAdder receivedBytes = new LongAdder();
+	private final long throttledAtStart;
+	private final long droppedAtStart;
+	private final long startNanos = System.nanoTime();
+	private volatile long lastDrain = startNanos;
+
+	private PayloadLoadGenerator(final MinecraftServer server, final int clientCount, final double payloadsPerSecond, final int seconds,
+			final Consumer<String> output) throws InterruptedException {
+		this.server = server;
+		this.endTick = server.getTickCount() + seconds * 20L;
+		this.output = output;
+		this.throttledAtStart = ServerboundRateLimiter.throttledCount();
+		this.droppedAtStart = ServerboundRateLimiter.droppedCount();
+
+		final var threadId = new AtomicInteger();
+		this.group = new DefaultEventLoopGroup(Math.min(4, Math.max(1, clientCount)), runnable -> {
+			final var thread = new Thread(runnable, "ExampleMod-Load-Netty-" + threadId.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.serverChannel = new ServerBootstrap().group(group).channel(LocalServerChannel.class).childHandler(new ChannelInitializer<Channel>() {
+			@Override
+			protected void initChannel(final Channel channel) {
+				// The same pipeline vanilla sets up for a player connecting over the network
+				final var pipeline = channel.pipeline();
+				Connection.configureSerialization(pipeline, PacketFlow.SERVERBOUND, false, null);
+				final var connection = new Connection(PacketFlow.SERVERBOUND);
+				connection.configurePacketHandler(pipeline);
+				pipeline.addLast(new ChannelInboundHandlerAdapter() {
+					@Override
+					public void channelActive(final ChannelHandlerContext context) throws Exception {
+						super.channelActive(context);
+						accepted.add(connection);
+					}
+				});
+			}
+		}).bind(LocalAddress.ANY).syncUninterruptibly().channel();
+
+		try {
+			final var wire = Wire.encode(server);
+			for (int i = 0; i < clientCount; i++) {
+				clients.add(connect(i, wire));
+			}
+		} catch (final InterruptedException | RuntimeException exception) {
+			closeClients();
+			throw exception;
+		}
+
+		final var senderId = new AtomicInteger();
+		senders = Executors.newScheduledThreadPool(Math.min(4, Math.max(1, clientCount)), runnable -> {
+			final var thread = new Thread(runnable, "ExampleMod-Load-Sender-" + senderId.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		final long periodNanos = (long) (1_000_000_000D / payloadsPerSecond);
+		for (int i = 0; i < clients.size(); i++) {
+			final var client = clients.get(i);
+			// Spread the clients out over the period so they don't all send at once
+			senders.scheduleAtFixedRate(() -> send(client), periodNanos * i / clients.size(), periodNanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * Starts a run, must be called on the server thread
+	 *
+	 * @return If the run started, only one run may be active at a time
+	 */
+	public static boolean start(final MinecraftServer server, final int clients, final double payloadsPerSecond, final int seconds,
+			final Consumer<String> output) {
+		if (running != null) return false;
+		try {
+			running = new PayloadLoadGenerator(server, clients, payloadsPerSecond, seconds, output);
+		} catch (final InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Called right before the server thread drains the payload work queued by the network threads
+	 */
+	public static void beforeDrain() {
+		final var generator = running;
+		if (generator != null) generator.lastDrain = System.nanoTime();
+	}
+
+	/**
+	 * Called at the end of the server tick once everything queued for the clients has been flushed
+	 */
+	public static void afterFlush() {
+		final var generator = running;
+		if (generator != null) generator.tick();
+	}
+
+	/**
+	 * Stops a run early, the partial results are still reported. Must be called on the server thread, at the latest while
+	 * the server is stopping
+	 */
+	public static void stop() {
+		final var generator = running;
+		if (generator != null) generator.finish();
+	}
+
+	/**
+	 * Connects a simulated client and sets its connection up for the game protocol, without logging the player in
+	 */
+	private SimulatedClient connect(final int index, final Wire wire) throws InterruptedException {
+		final var decorator = RegistryFriendlyByteBuf.decorator(server.registryAccess(), ConnectionType.NEOFORGE);
+		final var clientbound = GameProtocols.CLIENTBOUND_TEMPLATE.bind(decorator);
+		final var name = "load-" + index;
+		final var reader = new ReplyReader(name);
+		final var channel = new Bootstrap().group(group).channel(LocalChannel.class).handler(new ChannelInitializer<Channel>() {
+			@Override
+			protected void initChannel(final Channel channel) {
+				channel.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+					@Override
+					public void channelRead(final ChannelHandlerContext context, final Object message) {
+						if (message instanceof ByteBuf buffer) receivedBytes.add(buffer.readableBytes());
+						context.fireChannelRead(message);
+					}
+				}, new Varint21FrameDecoder(null), new PacketDecoder<>(clientbound), new PacketBundlePacker(clientbound.bundlerInfo()), reader);
+			}
+		}).connect(serverChannel.localAddress()).syncUninterruptibly().channel();
+		final var connection = accepted.poll(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		if (connection == null) {
+			channel.close();
+			throw new IllegalStateException("Simulated client " + index + " didn't connect");
+		}
+
+		final var profile = new GameProfile(UUID.nameUUIDFromBytes(("examplemod-load-" + index).getBytes(StandardCharsets.UTF_8)), name);
+		final var cookie = CommonListenerCookie.createInitial(profile, false);
+		NetworkRegistry.configureMockConnection(connection);
+		final var player = new ServerPlayer(server, server.overworld(), profile, cookie.clientInformation());
+		final var listener = new ServerGamePacketListenerImpl(server, connection, player, cookie);
+		connection.setupOutboundProtocol(clientbound);
+		connection.setupInboundProtocol(GameProtocols.SERVERBOUND_TEMPLATE.bind(decorator), listener);
+		// Nothing is sent to the player before this, the listener doesn't send anything until it's ticked
+		reader.playerId = player.getId();
+		return new SimulatedClient(player, connection, channel, wire, reader);
+	}
+
+	private void send(final SimulatedClient client) {
+		try {
+			client.send();
+			sent.increment();
+		} catch (final RuntimeException exception) {
+			SEND_FAILED.log(client.player.getGameProfile().getName(), exception);
+		}
+	}
+
+	private void tick() {
+		final long[] serverTickTimes = server.getTickTimesNanos();
+		tickTimes.record(serverTickTimes[Math.floorMod(server.getTickCount() - 1, serverTickTimes.length)]);
+
+		final long now = System.nanoTime();
+		for (final var client : clients) {
+			Reply reply;
+			while ((reply = client.reader.replies.poll()) != null) {
+				// Everything sent before the drain was handled by the time the reply was sent
+				Long sentAt;
+				while ((sentAt = client.outstanding.peek()) != null && sentAt <= reply.drainedAt) {
+					client.outstanding.poll();
+					latency.record(reply.receivedAt - sentAt);
+					acknowledged.increment();
+				}
+			}
+			Long sentAt;
+			while ((sentAt = client.outstanding.peek()) != null && now - sentAt > LOST_AFTER_NANOS) {
+				client.outstanding.poll();
+				lost.increment();
+			}
+		}
+
+		if (server.getTickCount() >= endTick) finish();
+	}
+
+	private void finish() {
+		if (running != this) return;
+		running = null;
+		senders.shutdownNow();
+		closeClients();
+
+		final double seconds = (System.nanoTime() - startNanos) / 1_000_000_000D;
+		final var latency = this.latency.stats();
+		final var ticks = tickTimes.stats();
+		final var lines = List.of(
+				String.format("Load run: %d clients for %.1fs", clients.size(), seconds),
+				String.format("  sent=%d (%.1f/s) acknowledged=%d (%.1f/s) lost=%d throttled=%d dropped=%d", sent.sum(), sent.sum() / seconds,
+						acknowledged.sum(), acknowledged.sum() / seconds, lost.sum(), ServerboundRateLimiter.throttledCount() - throttledAtStart,
+						ServerboundRateLimiter.droppedCount() - droppedAtStart),
+				String.format("  clients received replies=%d (%.1f/s) bytes=%d", repliesReceived.sum(), repliesReceived.sum() / seconds,
+						receivedBytes.sum()),
+				String.format("  end to end latency p50=%s p99=%s max=%s", formatNanos(latency.p50()), formatNanos(latency.p99()),
+						formatNanos(latency.max())),
+				String.format("  server tick average=%s p50=%s p99=%s max=%s", formatNanos(ticks.count() == 0 ? 0 : ticks.total() / ticks.count()),
+						formatNanos(ticks.p50()), formatNanos(ticks.p99()), formatNanos(ticks.max())));
+		lines.forEach(line -> {
+			ExampleMod.LOG.info(line);
+			output.accept(line);
+		});
+	}
+
+	/**
+	 * Tears down the simulated clients. Their connections are never ticked, so closing them doesn't reach
+	 * {@link ServerGamePacketListenerImpl#onDisconnect} and everything a logout would clean up is cleaned up here
+	 */
+	private void closeClients() {
+		for (final var client : clients) {
+			client.channel.close().syncUninterruptibly();
+			client.connection.channel().close().syncUninterruptibly();
+			client.player.getAdvancements().stopListening();
+			ServerboundRateLimiter.remove(client.player);
+			ComponentDictionary.remove(client.player);
+			ClientboundBatcher.remove(client.player);
+			deleteSavedData(client.player.getUUID());
+		}
+		serverChannel.close().syncUninterruptibly();
+		group.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * The players are never saved, should anything have written their data anyway it doesn't outlive the run
+	 */
+	private void deleteSavedData(final UUID id) {
+		final var playerData = server.getWorldPath(LevelResource.PLAYER_DATA_DIR);
+		for (final var file : List.of(playerData.resolve(id + ".dat"), playerData.resolve(id + ".dat_old"),
+				server.getWorldPath(LevelResource.PLAYER_STATS_DIR).resolve(id + ".json"),
+				server.getWorldPath(LevelResource.PLAYER_ADVANCEMENTS_DIR).resolve(id + ".json"))) {
+			try {
+				Files.deleteIfExists(file);
+			} catch (final IOException exception) {
+				CLEANUP_FAILED.log(file, exception);
+			}
+		}
+	}
+
+	/**
+	 * The frames a real client sends, the first payload defines the component in the player's dictionary and every one
+	 * after references it
+	 */
+	private record Wire(byte[] definition, byte[] reference) {
+
+		private static Wire encode(final MinecraftServer server) {
+			// Every simulated client starts with an empty dictionary, so they can all send the same bytes
+			final var dictionary = new ComponentDictionary.ClientTable();
+			final var component = Component.literal("This component went over the network");
+			final var codec = GameProtocols.SERVERBOUND_TEMPLATE.bind(RegistryFriendlyByteBuf.decorator(server.registryAccess(),
+					ConnectionType.NEOFORGE)).codec();
+			return new Wire(frame(codec, new ExampleServerboundPacket(component, dictionary)),
+					frame(codec, new ExampleServerboundPacket(component, dictionary)));
+		}
+
+		/**
+		 * Encodes the packet the payload is sent in and prefixes it with its length, like the connection's frame encoder
+		 */
+		private static byte[] frame(final StreamCodec<ByteBuf, Packet<? super ServerGamePacketListener>> codec,
+				final ExampleServerboundPacket payload) {
+			final var packet = Unpooled.buffer();
+			codec.encode(packet, new ServerboundCustomPayloadPacket(payload));
+			final var frame = Unpooled.buffer();
+			VarInt.write(frame, packet.readableBytes());
+			frame.writeBytes(packet);
+			final var bytes = new byte[frame.readableBytes()];
+			frame.readBytes(bytes);
+			return bytes;
+		}
+	}
+
+	/**
+	 * @param receivedAt When the client received the reply
+	 * @param drainedAt  When the server thread last drained its queue as of then, every payload sent before was handled
+	 */
+	private record Reply(long receivedAt, long drainedAt) {}
+
+	/**
+	 * Last in the client's pipeline, sees every packet the client decoded
+	 */
+	private final class ReplyReader extends ChannelInboundHandlerAdapter {
+
+		private final String name;
+		/**
+		 * Replies in the order they were received, taken by the server thread after every tick
+		 */
+		private final Queue<Reply> replies = new ConcurrentLinkedQueue<>();
+		private volatile int playerId = -1;
+
+		private ReplyReader(final String name) {
+			this.name = name;
+		}
+
+		@Override
+		public void channelRead(final ChannelHandlerContext context, final Object message) {
+			if (message instanceof Packet<?> packet && isReply(packet)) {
+				repliesReceived.increment();
+				replies.add(new Reply(System.nanoTime(), lastDrain));
+			}
+		}
+
+		@Override
+		public void exceptionCaught(final ChannelHandlerContext context, final Throwable cause) {
+			// Keep reading, a packet the client can't decode shouldn't end the run
+			DECODE_FAILED.log(name, cause);
+		}
+
+		private boolean isReply(final Packet<?> packet) {
+			if (packet instanceof ClientboundBundlePacket bundle) {
+				for (final var subPacket : bundle.subPackets()) {
+					if (isReply(subPacket)) return true;
+				}
+				return false;
+			}
+			return packet instanceof ClientboundCustomPayloadPacket custom && isReply(custom.payload());
+		}
+
+		private boolean isReply(final CustomPacketPayload payload) {
+			if (payload instanceof ExampleClientboundPacket example) return example.entityId() == playerId;
+			// Bundles are sorted
+			if (payload instanceof ExampleClientboundBundlePacket bundle) return Arrays.binarySearch(bundle.entityIds(), playerId) >= 0;
+			if (payload instanceof SharedClientboundPacket shared) return isReply(shared.payload());
+			return false;
+		}
+	}
+
+	private static final class SimulatedClient {
+
+		private final ServerPlayer player;
+		private final Connection connection;
+		/**
+		 * The client's end of the connection
+		 */
+		private final Channel channel;
+		private final Wire wire;
+		private final ReplyReader reader;
+		private final Queue<Long> outstanding = new ConcurrentLinkedQueue<>();
+		private boolean defined;
+
+		private SimulatedClient(final ServerPlayer player, final Connection connection, final Channel channel, final Wire wire,
+				final ReplyReader reader) {
+			this.player = player;
+			this.connection = connection;
+			this.channel = channel;
+			this.wire = wire;
+			this.reader = reader;
+		}
+
+		/**
+		 * Runs on a sender thread, writes the payload to the client's end of the connection
+		 */
+		private void send() {
+			final var bytes = defined ? wire.reference : wire.definition;
+			defined = true;
+			outstanding.add(System.nanoTime());
+			channel.writeAndFlush(Unpooled.wrappedBuffer(bytes));
+		}
+	}
+}
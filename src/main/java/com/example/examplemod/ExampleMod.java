@@ -4,12 +4,14 @@ import com.example.examplemod.client.*;
 import com.example.examplemod.common.item.ExampleModItems;
 import com.example.examplemod.config.ExampleModConfig;
 import com.example.examplemod.network.ExampleModPackets;
+import com.example.examplemod.profiling.*;
 import com.mojang.logging.LogUtils;
 import net.neoforged.api.distmarker.Dist;
-import net.neoforged.bus.api.*;
+import net.neoforged.bus.api.IEventBus;
 import net.neoforged.fml.ModContainer;
 import net.neoforged.fml.common.Mod;
 import net.neoforged.fml.config.ModConfig.Type;
+import net.neoforged.fml.event.lifecycle.FMLLoadCompleteEvent;
 import net.neoforged.neoforge.common.NeoForge;
 import net.neoforged.neoforge.event.BuildCreativeModeTabContentsEvent;
 import org.slf4j.Logger;
@@ -25,29 +27,37 @@ public final class ExampleMod {
 	public static final String MOD_ID = "examplemod";
 
 	public ExampleMod(final ModContainer modContainer, final IEventBus modBus, final Dist dist) {
-		modBus.addListener(ExampleModPackets::init);
+		try (final var ignored = StartupTimeline.begin("ExampleMod.<init>")) {
+			StartupTimeline.timeRegistration(modBus);
+			ExampleModJfrEvents.register();
+			modBus.addListener(FMLLoadCompleteEvent.class, event -> StartupTimeline.write());
+			modBus.addListener(ExampleModPackets::init);
 
-		// You likely don't want all of these.
-		modContainer.registerConfig(Type.COMMON, ExampleModConfig.COMMON.spec());
-		modContainer.registerConfig(Type.CLIENT, ExampleModConfig.CLIENT.spec());
-		modContainer.registerConfig(Type.SERVER, ExampleModConfig.SERVER.spec());
-		modContainer.registerConfig(Type.STARTUP, ExampleModConfig.STARTUP.spec());
+			// You likely don't want all of these.
+			modContainer.registerConfig(Type.COMMON, ExampleModConfig.COMMON.spec());
+			modContainer.registerConfig(Type.CLIENT, ExampleModConfig.CLIENT.spec());
+			modContainer.registerConfig(Type.SERVER, ExampleModConfig.SERVER.spec());
+			modContainer.registerConfig(Type.STARTUP, ExampleModConfig.STARTUP.spec());
+			ExampleModConfig.init(modBus);
 
-		modBus.register(ExampleMod.class);
-		ExampleModItems.ITEMS.register(modBus);
+			HandlerProfiler.addListener(modBus, BuildCreativeModeTabContentsEvent.class, "ExampleMod.onCreativeTabBuild",
+					ExampleMod::onCreativeTabBuild);
+			ExampleModItems.ITEMS.register(modBus);
 
-		ExampleModForgeEvents.init(NeoForge.EVENT_BUS);
+			ExampleModForgeEvents.init(NeoForge.EVENT_BUS);
 
-		if (dist == Dist.CLIENT) {
-			ExampleModClientEvents.init(modContainer, modBus);
-			ExampleModClientForgeEvents.init(NeoForge.EVENT_BUS);
+			if (dist == Dist.CLIENT) {
+				ExampleModClientEvents.init(modContainer, modBus);
+				ExampleModClientForgeEvents.init(NeoForge.EVENT_BUS);
+			}
 		}
 	}
 
-	@SubscribeEvent
 	private static void onCreativeTabBuild(final BuildCreativeModeTabContentsEvent event) {
-		if (event.getTabKey() == CreativeModeTabs.TOOLS_AND_UTILITIES) {
-			event.accept(ExampleModItems.EXAMPLE_ITEM.toStack(), TabVisibility.PARENT_AND_SEARCH_TABS);
+		try (final var ignored = StartupTimeline.beginOnce("BuildCreativeModeTabContentsEvent/" + event.getTabKey().location())) {
+			if (event.getTabKey() == CreativeModeTabs.TOOLS_AND_UTILITIES) {
+				event.accept(ExampleModItems.EXAMPLE_ITEM.toStack(), TabVisibility.PARENT_AND_SEARCH_TABS);
+			}
 		}
 	}
 
@@ -1,20 +1,132 @@
 package com.example.examplemod;
 
-import net.neoforged.bus.api.*;
-import net.neoforged.neoforge.event.tick.LevelTickEvent;
+import com.example.examplemod.common.command.ExampleModCommands;
+import com.example.examplemod.common.data.ItemDefinitionIndex;
+import com.example.examplemod.common.recipe.AddonRecipeIndex;
+import com.example.examplemod.common.scheduler.*;
+import com.example.examplemod.common.storage.RegionStore;
+import com.example.examplemod.network.*;
+import com.example.examplemod.profiling.*;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.neoforge.event.*;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent.PlayerLoggedOutEvent;
+import net.neoforged.neoforge.event.level.*;
+import net.neoforged.neoforge.event.server.*;
+import net.neoforged.neoforge.event.tick.*;
+
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.*;
+import net.minecraft.world.level.Level;
+
+import java.util.*;
 
 public final class ExampleModForgeEvents {
 
+	/**
+	 * One per dimension so one dimension logging doesn't suppress the others, only touched on the server thread
+	 */
+	private static final Map<ResourceKey<Level>, ExampleModLog.CallSite> DEBUG_LOGS = new HashMap<>();
+
 	public static void init(final IEventBus eventBus) {
-		// Register all static @SubscribeEvent annotated event methods
-		eventBus.register(ExampleModForgeEvents.class);
+		// Listeners are registered through the profiler so their cost shows up in /examplemod perf
+		HandlerProfiler.addListener(eventBus, LevelTickEvent.Post.class, "ExampleModForgeEvents.onTick", ExampleModForgeEvents::onTick,
+				LevelTickEvent::getLevel);
+		HandlerProfiler.addListener(eventBus, LevelEvent.Unload.class, "ExampleModForgeEvents.onLevelUnload",
+				ExampleModForgeEvents::onLevelUnload);
+		HandlerProfiler.addListener(eventBus, LevelEvent.Save.class, "ExampleModForgeEvents.onLevelSave", ExampleModForgeEvents::onLevelSave);
+		HandlerProfiler.addListener(eventBus, ChunkEvent.Load.class, "ExampleModForgeEvents.onChunkLoad", ExampleModForgeEvents::onChunkLoad);
+		HandlerProfiler.addListener(eventBus, ChunkEvent.Unload.class, "ExampleModForgeEvents.onChunkUnload",
+				ExampleModForgeEvents::onChunkUnload);
+		HandlerProfiler.addListener(eventBus, ServerTickEvent.Pre.class, "ExampleModForgeEvents.onServerTickStart",
+				ExampleModForgeEvents::onServerTickStart);
+		HandlerProfiler.addListener(eventBus, ServerTickEvent.Post.class, "ExampleModForgeEvents.onServerTick",
+				ExampleModForgeEvents::onServerTick);
+		HandlerProfiler.addListener(eventBus, PlayerLoggedOutEvent.class, "ExampleModForgeEvents.onPlayerLoggedOut",
+				ExampleModForgeEvents::onPlayerLoggedOut);
+		HandlerProfiler.addListener(eventBus, ServerStoppedEvent.class, "ExampleModForgeEvents.onServerStopped",
+				ExampleModForgeEvents::onServerStopped);
+		HandlerProfiler.addListener(eventBus, RegisterCommandsEvent.class, "ExampleModForgeEvents.onRegisterCommands",
+				ExampleModForgeEvents::onRegisterCommands);
+		HandlerProfiler.addListener(eventBus, AddReloadListenerEvent.class, "ReloadProfiler.onAddReloadListeners",
+				ReloadProfiler::onAddReloadListeners);
+		HandlerProfiler.addListener(eventBus, TagsUpdatedEvent.class, "ExampleModForgeEvents.onTagsUpdated",
+				ExampleModForgeEvents::onTagsUpdated);
+
+		// Periodic work should go through the scheduler so it doesn't all land on the same tick
+		LevelTickScheduler.register("example_debug_log", 100, 50_000,
+				level -> DEBUG_LOGS.computeIfAbsent(level.dimension(),
+						dimension -> ExampleModLog.debug("This is a debug log every 100 ticks! (5 seconds) in " + dimension.location())).log());
 	}
 
-	@SubscribeEvent
 	private static void onTick(final LevelTickEvent.Post event) {
-		if (event.getLevel().getGameTime() % 100 != 0) {
-			return;
+		final var jfrEvent = new ExampleModJfrEvents.LevelTick();
+		jfrEvent.begin();
+		if (event.getLevel() instanceof ServerLevel level) {
+			LevelTickScheduler.get(level).tick(level);
+			OffThreadExecutor.drain(level);
+		}
+		if (jfrEvent.shouldCommit()) {
+			jfrEvent.dimension = event.getLevel().dimension().location().toString();
+			jfrEvent.commit();
+		}
+	}
+
+	private static void onLevelUnload(final LevelEvent.Unload event) {
+		if (event.getLevel() instanceof ServerLevel level) {
+			LevelTickScheduler.remove(level);
+			OffThreadExecutor.remove(level);
+			RegionStore.remove(level);
+		}
+	}
+
+	private static void onLevelSave(final LevelEvent.Save event) {
+		if (event.getLevel() instanceof ServerLevel level) {
+			RegionStore.get(level).save();
+		}
+	}
+
+	private static void onChunkLoad(final ChunkEvent.Load event) {
+		if (event.getLevel() instanceof ServerLevel level) {
+			RegionStore.get(level).onChunkLoad(event.getChunk().getPos());
+		}
+	}
+
+	private static void onChunkUnload(final ChunkEvent.Unload event) {
+		if (event.getLevel() instanceof ServerLevel level) {
+			RegionStore.get(level).onChunkUnload(event.getChunk().getPos());
 		}
-		ExampleMod.LOG.debug("This is a debug log every 100 ticks! (5 seconds)");
 	}
-}
\ No newline at end of file
+
+	private static void onServerTickStart(final ServerTickEvent.Pre event) {
+		// Run the work our thread safe payload handlers handed over since the last tick
+		MainThreadQueue.SERVER.drain();
+	}
+
+	private static void onServerTick(final ServerTickEvent.Post event) {
+		// Send everything our handlers queued up this tick
+		ClientboundBatcher.flush();
+	}
+
+	private static void onPlayerLoggedOut(final PlayerLoggedOutEvent event) {
+		if (event.getEntity() instanceof ServerPlayer player) {
+			ClientboundBatcher.remove(player);
+			ServerboundRateLimiter.remove(player);
+			ComponentDictionary.remove(player);
+		}
+	}
+
+	private static void onServerStopped(final ServerStoppedEvent event) {
+		MainThreadQueue.SERVER.clear();
+	}
+
+	private static void onRegisterCommands(final RegisterCommandsEvent event) {
+		ExampleModCommands.register(event.getDispatcher());
+	}
+
+	private static void onTagsUpdated(final TagsUpdatedEvent event) {
+		// Fires after every datapack reload and tag sync, by which point TFC's definitions and the recipes are up to date as well
+		ItemDefinitionIndex.invalidate();
+		AddonRecipeIndex.invalidate();
+		if (event.getUpdateCause() == TagsUpdatedEvent.UpdateCause.SERVER_DATA_LOAD) ReloadProfiler.onReloaded();
+	}
+}
@@ -0,0 +1,275 @@
+package com.example.examplemod;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.event.Level;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Logging for hot paths. Messages are declared once per call site and:
+ * <ul>
+ *     <li>dropped before anything else happens if {@link ExampleMod#LOG} has the level disabled</li>
+ *     <li>rate limited per call site, the next message logged reports how many were suppressed in between (or a summary
+ *     is logged once the call site goes quiet)</li>
+ *     <li>handed to a background thread through a preallocated ring buffer, formatting and appender I/O happen there. The
+ *     thread sleeps while there's nothing to log and is woken by the next message</li>
+ * </ul>
+ * Call sites are meant to be kept in static fields, each one is kept around for good.
+ * <p>
+ * Logging doesn't allocate on the calling thread (beyond boxing primitive arguments) and never blocks it, if the ring
+ * buffer is full the message is dropped and counted instead.
+ * <p>
+ * Arguments are formatted later on another thread so they must not be mutated after logging. As with SLF4J a
+ * {@link Throwable} passed as the last argument is logged as the exception.
+ */
+public final class ExampleModLog {
+
+	private static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(1);
+	private static final int CAPACITY = 1024;
+	private static final int MASK = CAPACITY - 1;
+	private static final long SUMMARY_INTERVAL_NANOS = 1_000_000_000;
+
+	private static final Slot[] SLOTS = new Slot[CAPACITY];
+	private static final AtomicLong TAIL = new AtomicLong();
+	private static final AtomicLong DROPPED = new AtomicLong();
+	private static final List<CallSite> CALL_SITES = new CopyOnWriteArrayList<>();
+	private static final Thread CONSUMER;
+	private static long head;
+	/**
+	 * Set by the consumer before it parks, producers only unpark it while it's set
+	 */
+	private static volatile boolean sleeping;
+
+	static {
+		for (int i = 0; i < CAPACITY; i++) {
+			SLOTS[i] = new Slot(i);
+		}
+		CONSUMER = new Thread(ExampleModLog::run, "ExampleMod-Log");
+		CONSUMER.setDaemon(true);
+		CONSUMER.start();
+		Runtime.getRuntime().addShutdownHook(new Thread(ExampleModLog::drain, "ExampleMod-Log-Shutdown"));
+	}
+
+	public static CallSite debug(final String pattern) {
+		return callSite(Level.DEBUG, pattern, DEFAULT_INTERVAL);
+	}
+
+	public static CallSite info(final String pattern) {
+		return callSite(Level.INFO, pattern, DEFAULT_INTERVAL);
+	}
+
+	public static CallSite warn(final String pattern) {
+		return callSite(Level.WARN, pattern, DEFAULT_INTERVAL);
+	}
+
+	public static CallSite error(final String pattern) {
+		return callSite(Level.ERROR, pattern, DEFAULT_INTERVAL);
+	}
+
+	/**
+	 * @param pattern     SLF4J message pattern
+	 * @param minInterval The minimum time between two messages from this call site, anything in between is suppressed
+	 */
+	public static CallSite callSite(final Level level, final String pattern, final Duration minInterval) {
+		final var site = new CallSite(level, pattern, minInterval.toNanos());
+		CALL_SITES.add(site);
+		return site;
+	}
+
+	/**
+	 * @return How many messages were dropped because the ring buffer was full
+	 */
+	public static long droppedCount() {
+		return DROPPED.get();
+	}
+
+	/**
+	 * Claims the next free slot, bounded multi producer queue as described by Dmitry Vyukov
+	 */
+	private static void publish(final CallSite site, final long suppressed, @Nullable final Object arg0, @Nullable final Object arg1,
+			@Nullable final Object arg2, final int argCount) {
+		while (true) {
+			final long sequence = TAIL.get();
+			final var slot = SLOTS[(int) (sequence & MASK)];
+			final long slotSequence = slot.sequence;
+			if (slotSequence == sequence) {
+				if (!TAIL.compareAndSet(sequence, sequence + 1)) continue;
+				slot.site = site;
+				slot.suppressed = suppressed;
+				slot.arg0 = arg0;
+				slot.arg1 = arg1;
+				slot.arg2 = arg2;
+				slot.argCount = argCount;
+				slot.sequence = sequence + 1;
+				if (sleeping) LockSupport.unpark(CONSUMER);
+				return;
+			}
+			if (slotSequence < sequence) {
+				// The consumer hasn't freed this slot yet, the buffer is full
+				DROPPED.incrementAndGet();
+				return;
+			}
+			// Another producer claimed this sequence first, try again with the next one
+		}
+	}
+
+	private static void run() {
+		long nextSummary = System.nanoTime() + SUMMARY_INTERVAL_NANOS;
+		while (true) {
+			if (!drain()) {
+				// Announce we're going to sleep before checking once more, a message published in between either sees the flag
+				// or is seen by the check
+				sleeping = true;
+				if (!hasPending()) LockSupport.parkNanos(Math.max(0, nextSummary - System.nanoTime()));
+				sleeping = false;
+			}
+			if (System.nanoTime() - nextSummary >= 0) {
+				summarizeQuietCallSites();
+				nextSummary = System.nanoTime() + SUMMARY_INTERVAL_NANOS;
+			}
+		}
+	}
+
+	private static synchronized boolean hasPending() {
+		return SLOTS[(int) (head & MASK)].sequence == head + 1;
+	}
+
+	/**
+	 * @return If anything was logged
+	 */
+	private static synchronized boolean drain() {
+		boolean logged = false;
+		while (true) {
+			final var slot = SLOTS[(int) (head & MASK)];
+			if (slot.sequence != head + 1) break;
+			write(slot);
+			slot.site = null;
+			slot.arg0 = slot.arg1 = slot.arg2 = null;
+			slot.sequence = head + CAPACITY;
+			head++;
+			logged = true;
+		}
+		// Messages are only dropped while the buffer is full, so there's always something else logged alongside the report
+		final long dropped = logged ? DROPPED.getAndSet(0) : 0;
+		if (dropped > 0) {
+			ExampleMod.LOG.warn("Dropped {} log messages, the log buffer was full", dropped);
+		}
+		return logged;
+	}
+
+	private static void write(final Slot slot) {
+		final var site = slot.site;
+		assert site != null;
+		final var builder = ExampleMod.LOG.atLevel(site.level);
+		int argCount = slot.argCount;
+		if (argCount > 0 && slot.argument(argCount - 1) instanceof Throwable throwable) {
+			builder.setCause(throwable);
+			argCount--;
+		}
+		for (int i = 0; i < argCount; i++) {
+			builder.addArgument(slot.argument(i));
+		}
+		if (slot.suppressed > 0) {
+			builder.setMessage(site.pattern + " ({} similar messages suppressed)").addArgument(slot.suppressed);
+		} else {
+			builder.setMessage(site.pattern);
+		}
+		builder.log();
+	}
+
+	/**
+	 * Reports call sites which suppressed messages and went quiet afterward, otherwise the count would only show up with the
+	 * next message from that call site
+	 */
+	private static void summarizeQuietCallSites() {
+		final long now = System.nanoTime();
+		for (final var site : CALL_SITES) {
+			if (now - site.nextAllowed.get() < 0 || site.suppressed.get() == 0) continue;
+			final long suppressed = site.suppressed.getAndSet(0);
+			if (suppressed > 0) {
+				ExampleMod.LOG.atLevel(site.level).log("Suppressed {} messages like \"{}\"", suppressed, site.pattern);
+			}
+		}
+	}
+
+	public static final class CallSite {
+
+		private final Level level;
+		private final String pattern;
+		private final long minIntervalNanos;
+		private final AtomicLong nextAllowed = new AtomicLong(Long.MIN_VALUE);
+		private final AtomicLong suppressed = new AtomicLong();
+
+		private CallSite(final Level level, final String pattern, final long minIntervalNanos) {
+			this.level = level;
+			this.pattern = pattern;
+			this.minIntervalNanos = minIntervalNanos;
+		}
+
+		public boolean isEnabled() {
+			return ExampleMod.LOG.isEnabledForLevel(level);
+		}
+
+		public void log() {
+			log(null, null, null, 0);
+		}
+
+		public void log(@Nullable final Object arg0) {
+			log(arg0, null, null, 1);
+		}
+
+		public void log(@Nullable final Object arg0, @Nullable final Object arg1) {
+			log(arg0, arg1, null, 2);
+		}
+
+		public void log(@Nullable final Object arg0, @Nullable final Object arg1, @Nullable final Object arg2) {
+			log(arg0, arg1, arg2, 3);
+		}
+
+		private void log(@Nullable final Object arg0, @Nullable final Object arg1, @Nullable final Object arg2, final int argCount) {
+			if (!isEnabled()) return;
+			final long now = System.nanoTime();
+			final long allowedAt = nextAllowed.get();
+			if (allowedAt != Long.MIN_VALUE && now - allowedAt < 0 || !nextAllowed.compareAndSet(allowedAt, now + minIntervalNanos)) {
+				suppressed.incrementAndGet();
+				return;
+			}
+			publish(this, suppressed.getAndSet(0), arg0, arg1, arg2, argCount);
+		}
+	}
+
+	/**
+	 * A ring buffer slot, {@code sequence} tells producers and the consumer whose turn it is
+	 */
+	private static final class Slot {
+
+		private volatile long sequence;
+		@Nullable
+		private CallSite site;
+		private long suppressed;
+		@Nullable
+		private Object arg0;
+		@Nullable
+		private Object arg1;
+		@Nullable
+		private Object arg2;
+		private int argCount;
+
+		private Slot(final long sequence) {
+			this.sequence = sequence;
+		}
+
+		@Nullable
+		private Object argument(final int index) {
+			return switch (index) {
+				case 0 -> arg0;
+				case 1 -> arg1;
+				default -> arg2;
+			};
+		}
+	}
+}
@@ -1,25 +1,40 @@
 package com.example.examplemod.client;
 
+import com.example.examplemod.common.item.TooltipCache;
+import com.example.examplemod.profiling.StartupTimeline;
 import net.neoforged.bus.api.*;
 import net.neoforged.fml.ModContainer;
 import net.neoforged.fml.event.lifecycle.FMLClientSetupEvent;
 import net.neoforged.neoforge.client.event.EntityRenderersEvent.RegisterRenderers;
+import net.neoforged.neoforge.client.event.RegisterClientReloadListenersEvent;
 import net.neoforged.neoforge.client.gui.*;
 
+import net.minecraft.server.packs.resources.ResourceManagerReloadListener;
+
 public final class ExampleModClientEvents {
 
 	public static void init(final ModContainer modContainer, final IEventBus modBus) {
 		modContainer.registerExtensionPoint(IConfigScreenFactory.class, ConfigurationScreen::new);
 		// Register just this one static method
 		modBus.addListener(ExampleModClientEvents::clientSetup);
+		modBus.addListener(ExampleModClientEvents::registerReloadListeners);
 		// Register all static @SubscribeEvent annotated event methods
 		modBus.register(ExampleModClientEvents.class);
 	}
 
 	private static void clientSetup(final FMLClientSetupEvent event) {
-		event.enqueueWork(() -> {
-			// Things like ItemProperties.register should be enqueued
-		});
+		try (final var ignored = StartupTimeline.begin("FMLClientSetupEvent")) {
+			event.enqueueWork(() -> {
+				try (final var enqueued = StartupTimeline.begin("FMLClientSetupEvent/enqueueWork")) {
+					// Things like ItemProperties.register should be enqueued
+				}
+			});
+		}
+	}
+
+	private static void registerReloadListeners(final RegisterClientReloadListenersEvent event) {
+		// Cached tooltips may depend on the language or resources
+		event.registerReloadListener((ResourceManagerReloadListener) resourceManager -> TooltipCache.clear());
 	}
 
 	@SubscribeEvent
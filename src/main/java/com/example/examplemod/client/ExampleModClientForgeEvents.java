@@ -1,17 +1,50 @@
 package com.example.examplemod.client;
 
+import com.example.examplemod.common.item.TooltipCache;
+import com.example.examplemod.common.recipe.AddonRecipeIndex;
+import com.example.examplemod.network.*;
+import com.example.examplemod.profiling.HandlerProfiler;
 import net.neoforged.bus.api.IEventBus;
+import net.neoforged.neoforge.client.event.*;
 import net.neoforged.neoforge.event.entity.player.ItemTooltipEvent;
 
-import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.*;
+
+import java.util.function.Supplier;
 
 public final class ExampleModClientForgeEvents {
 
+	private static final Supplier<MutableComponent> EVENT_TOOLTIP = TooltipCache.constant(
+			() -> Component.literal("This component was added via an event!"));
+
 	public static void init(final IEventBus eventBus) {
-		eventBus.addListener(ExampleModClientForgeEvents::onItemTooltip);
+		HandlerProfiler.addListener(eventBus, ItemTooltipEvent.class, "ExampleModClientForgeEvents.onItemTooltip",
+				ExampleModClientForgeEvents::onItemTooltip, event -> event.getEntity() == null ? null : event.getEntity().level());
+		HandlerProfiler.addListener(eventBus, ClientPlayerNetworkEvent.LoggingOut.class, "ExampleModClientForgeEvents.onLoggingOut",
+				ExampleModClientForgeEvents::onLoggingOut);
+		HandlerProfiler.addListener(eventBus, ClientTickEvent.Pre.class, "ExampleModClientForgeEvents.onClientTickStart",
+				ExampleModClientForgeEvents::onClientTickStart);
+		HandlerProfiler.addListener(eventBus, RecipesUpdatedEvent.class, "ExampleModClientForgeEvents.onRecipesUpdated",
+				ExampleModClientForgeEvents::onRecipesUpdated);
 	}
 
 	private static void onItemTooltip(final ItemTooltipEvent event) {
-		event.getToolTip().add(Component.literal("This component was added via an event!"));
+		event.getToolTip().add(EVENT_TOOLTIP.get());
+	}
+
+	private static void onLoggingOut(final ClientPlayerNetworkEvent.LoggingOut event) {
+		// The component dictionary only lives as long as the connection
+		ComponentDictionary.resetClient();
+		MainThreadQueue.CLIENT.clear();
+	}
+
+	private static void onClientTickStart(final ClientTickEvent.Pre event) {
+		// Run the work our thread safe payload handlers handed over since the last tick
+		MainThreadQueue.CLIENT.drain();
+	}
+
+	private static void onRecipesUpdated(final RecipesUpdatedEvent event) {
+		// The client keeps the same recipe manager across syncs so the index can't tell on its own
+		AddonRecipeIndex.invalidate();
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,190 @@
+package com.example.examplemod.common.command;
+
+import com.example.examplemod.ExampleMod;
+import com.example.examplemod.common.data.ItemDefinitionIndex;
+import com.example.examplemod.common.recipe.AddonRecipeIndex;
+import com.example.examplemod.common.scheduler.*;
+import com.example.examplemod.common.storage.RegionStore;
+import com.example.examplemod.network.*;
+import com.example.examplemod.profiling.*;
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import net.dries007.tfc.common.component.heat.HeatCapability;
+import net.dries007.tfc.common.component.size.*;
+import net.dries007.tfc.common.container.KnappingContainer;
+import net.dries007.tfc.common.recipes.KnappingRecipe;
+
+import net.minecraft.commands.*;
+import net.minecraft.network.chat.Component;
+
+import java.util.function.Predicate;
+
+import static com.example.examplemod.profiling.LatencyHistogram.Stats.formatNanos;
+
+public final class ExampleModCommands {
+
+	/**
+	 * How many handlers are listed for each level
+	 */
+	private static final int TOP_HANDLERS = 10;
+
+	public static void register(final CommandDispatcher<CommandSourceStack> dispatcher) {
+		dispatcher.register(Commands.literal(ExampleMod.MOD_ID)
+				.requires(source -> source.hasPermission(2))
+				.then(Commands.literal("perf")
+						// Dumps the handler stats then resets them so the next dump only covers the time in between
+						.executes(context -> perf(context.getSource(), true))
+						.then(Commands.literal("peek").executes(context -> perf(context.getSource(), false))))
+				.then(Commands.literal("network").executes(context -> network(context.getSource())))
+				.then(Commands.literal("index")
+						.executes(context -> index(context.getSource()))
+						// Looks up the held item through the index and through TFC, to check they agree
+						.then(Commands.literal("held").executes(context -> indexHeld(context.getSource())))
+						// Looks up the welding recipe for the main and off hand items through the index and by scanning
+						.then(Commands.literal("weld").executes(context -> indexWeld(context.getSource())))
+						// Looks up the knapping recipe for the grid of the open knapping screen through the index and by scanning
+						.then(Commands.literal("knap").executes(context -> indexKnap(context.getSource()))))
+				.then(Commands.literal("reload")
+						// Reloads the selected datapacks with the reload profiler armed
+						.executes(context -> profileReload(context.getSource()))
+						.then(Commands.literal("last").executes(context -> lastReloadProfile(context.getSource()))))
+				.then(Commands.literal("storage").executes(context -> storage(context.getSource()))));
+	}
+
+	private static int perf(final CommandSourceStack source, final boolean reset) {
+		final var report = HandlerProfiler.report();
+		if (report.isEmpty()) {
+			source.sendSuccess(() -> Component.literal("No handler calls have been recorded"), false);
+		}
+		report.forEach((level, entries) -> {
+			final String levelName = level == null ? "global" : level.location().toString();
+			source.sendSuccess(() -> Component.literal("[" + levelName + "]"), false);
+			entries.stream().limit(TOP_HANDLERS).forEach(entry -> {
+				final var stats = entry.stats();
+				source.sendSuccess(() -> Component.literal(
+						String.format("  %s calls=%d total=%s p50=%s p99=%s max=%s", entry.handler(), stats.count(), formatNanos(stats.total()),
+								formatNanos(stats.p50()), formatNanos(stats.p99()), formatNanos(stats.max()))), false);
+			});
+		});
+
+		LevelTickScheduler.forEach((level, scheduler) -> source.sendSuccess(() -> Component.literal(
+				String.format("[%s] scheduler executed=%d deferred=%d skipped=%d pending=%d", level.dimension().location(),
+						scheduler.executedCount(), scheduler.deferredCount(), scheduler.skippedCount(), scheduler.pendingCount())), false));
+		OffThreadExecutor.forEach((level, executor) -> {
+			final var compute = executor.computeStats();
+			final var handOff = executor.handOffStats();
+			source.sendSuccess(() -> Component.literal(String.format(
+					"[%s] off thread submitted=%d applied=%d failed=%d cancelled=%d inFlight=%d queued=%d compute p99=%s hand-off p99=%s",
+					level.dimension().location(), executor.submittedCount(), executor.appliedCount(), executor.failedCount(),
+					executor.cancelledCount(), executor.inFlightCount(), executor.queuedCount(), formatNanos(compute.p99()),
+					formatNanos(handOff.p99()))), false);
+		});
+
+		if (reset) {
+			HandlerProfiler.reset();
+		}
+		return report.size();
+	}
+
+	private static int network(final CommandSourceStack source) {
+		source.sendSuccess(() -> Component.literal(String.format("Clientbound payloads queued=%d sent=%d", ClientboundBatcher.queuedPayloads(),
+				ClientboundBatcher.sentPayloads())), false);
+		source.sendSuccess(() -> Component.literal(String.format("Serverbound payloads throttled=%d dropped=%d", ServerboundRateLimiter.throttledCount(),
+				ServerboundRateLimiter.droppedCount())), false);
+		source.sendSuccess(() -> Component.literal(String.format("Server thread queue depth=%d", MainThreadQueue.SERVER.depth())), false);
+		ServerboundRateLimiter.offenders()
+				.forEach(offender -> source.sendSuccess(() -> Component.literal(
+						String.format("  %s throttled=%d dropped=%d", offender.playerName(), offender.throttled(), offender.dropped())), false));
+		return 1;
+	}
+
+	private static int index(final CommandSourceStack source) {
+		final var snapshot = ItemDefinitionIndex.current();
+		source.sendSuccess(() -> Component.literal(String.format("Item definition index heat=%d size=%d slowPath=%d built in %s, ~%d bytes",
+				snapshot.heat().size(), snapshot.size().size(), snapshot.heat().slowPathItems() + snapshot.size().slowPathItems(),
+				formatNanos(snapshot.buildNanos()), snapshot.estimatedBytes())), false);
+
+		final var recipes = AddonRecipeIndex.get(source.getServer().getRecipeManager());
+		source.sendSuccess(() -> Component.literal(String.format("Recipe index welding=%d/%d keys knapping=%d/%d keys unindexed=%d built in %s",
+				recipes.welding().size(), recipes.welding().keyCount(), recipes.knapping().size(), recipes.knapping().keyCount(),
+				recipes.welding().unindexedCount() + recipes.knapping().unindexedCount(), formatNanos(recipes.buildNanos()))), false);
+		return snapshot.heat().size() + snapshot.size().size() + recipes.welding().size() + recipes.knapping().size();
+	}
+
+	private static int indexHeld(final CommandSourceStack source) throws CommandSyntaxException {
+		final var stack = source.getPlayerOrException().getMainHandItem();
+		final var heat = ItemDefinitionIndex.heat(stack);
+		final var size = ItemDefinitionIndex.size(stack);
+		final boolean heatMatches = heat == HeatCapability.getDefinition(stack);
+		final boolean sizeMatches = size == (ItemSizeManager.get(stack) instanceof ItemSizeDefinition definition ? definition : null);
+		source.sendSuccess(() -> Component.literal(String.format("%s heat=%s (matches TFC: %s) size=%s (matches TFC: %s)", stack.getItem(), heat,
+				heatMatches, size, sizeMatches)), false);
+		return heatMatches && sizeMatches ? 1 : 0;
+	}
+
+	private static int indexWeld(final CommandSourceStack source) throws CommandSyntaxException {
+		final var player = source.getPlayerOrException();
+		final var first = player.getMainHandItem();
+		final var second = player.getOffhandItem();
+		final var recipeManager = source.getServer().getRecipeManager();
+		final var indexed = AddonRecipeIndex.welding(recipeManager, first, second);
+		final boolean matches = indexed == AddonRecipeIndex.scanWelding(recipeManager, first, second);
+		source.sendSuccess(() -> Component.literal(String.format("Welding %s + %s: %s (matches scan: %s)", first.getItem(), second.getItem(),
+				indexed == null ? "none" : indexed.id(), matches)), false);
+		return matches ? 1 : 0;
+	}
+
+	private static int indexKnap(final CommandSourceStack source) throws CommandSyntaxException {
+		if (!(source.getPlayerOrException().containerMenu instanceof KnappingContainer container)) {
+			source.sendFailure(Component.literal("Open a knapping screen first"));
+			return 0;
+		}
+		final var type = container.getKnappingType();
+		final var grid = container.getPattern();
+		final Predicate<KnappingRecipe> test = recipe -> type.equals(recipe.getKnappingType()) && recipe.getPattern().matches(grid);
+		final var recipeManager = source.getServer().getRecipeManager();
+		final var indexed = AddonRecipeIndex.knapping(recipeManager, type, grid, test);
+		final boolean matches = indexed == AddonRecipeIndex.scanKnapping(recipeManager, test);
+		source.sendSuccess(() -> Component.literal(String.format("Knapping: %s (matches scan: %s)", indexed == null ? "none" : indexed.id(),
+				matches)), false);
+		return matches ? 1 : 0;
+	}
+
+	private static int profileReload(final CommandSourceStack source) {
+		if (!ReloadProfiler.profileNextReload(report -> report.lines().forEach(line -> source.sendSuccess(() -> Component.literal(line), true)))) {
+			source.sendFailure(Component.literal("A profiled reload is already in progress"));
+			return 0;
+		}
+		final var server = source.getServer();
+		source.sendSuccess(() -> Component.literal("Reloading with the reload profiler, the report is written to " + ReloadProfiler.FILE_NAME), true);
+		server.reloadResources(server.getPackRepository().getSelectedIds()).exceptionally(throwable -> {
+			ReloadProfiler.cancel();
+			ExampleMod.LOG.warn("Profiled reload failed", throwable);
+			source.sendFailure(Component.literal("Reload failed, check the logs"));
+			return null;
+		});
+		return 1;
+	}
+
+	private static int lastReloadProfile(final CommandSourceStack source) {
+		final var report = ReloadProfiler.last();
+		if (report == null) {
+			source.sendFailure(Component.literal("No reload has been profiled yet"));
+			return 0;
+		}
+		report.lines().forEach(line -> source.sendSuccess(() -> Component.literal(line), false));
+		return report.directories().size();
+	}
+
+	private static int storage(final CommandSourceStack source) {
+		RegionStore.forEach((level, store) -> {
+			final var saves = store.saveStats();
+			source.sendSuccess(() -> Component.literal(String.format(
+					"[%s] regions=%d chunks=%d mapped=%d KiB dirtyPages=%d lastSave=%s (%d pages) save p99=%s max=%s pagesWritten=%d",
+					level.dimension().location(), store.regionCount(), store.loadedChunkCount(), store.mappedBytes() / 1024,
+					store.dirtyPageCount(), formatNanos(store.lastSaveNanos()), store.lastSavePages(), formatNanos(saves.p99()),
+					formatNanos(saves.max()), store.pagesWritten())), false);
+		});
+		return 1;
+	}
+}
@@ -0,0 +1,103 @@
+package com.example.examplemod.common.data;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.world.item.*;
+import net.minecraft.world.item.crafting.Ingredient;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * Item keyed index over a set of item definitions (such as TFC's heat or size definitions). Definitions are matched in the
+ * order they are given so the index resolves to the same definition as a linear scan would. Items whose first candidate
+ * definition depends on data components can't be resolved ahead of time and are marked for the slow path.
+ * <p>
+ * A non-simple (custom) ingredient doesn't have to list every item it matches, so once one has been seen the index can
+ * only vouch for items claimed by simple definitions before it. Items claimed after it go through the slow path, and so
+ * does any item missing from the index.
+ *
+ * @param <D> The definition type
+ */
+public final class DefinitionIndex<D> {
+
+	/**
+	 * Marker for items that have to go through the slow path
+	 */
+	private static final Object SLOW_PATH = new Object();
+
+	private final Reference2ObjectOpenHashMap<Item, Object> definitions;
+	private final int slowPathItems;
+	/**
+	 * If any definition has a non-simple ingredient, items missing from the index may still match it
+	 */
+	private final boolean hasNonSimple;
+
+	private DefinitionIndex(final Reference2ObjectOpenHashMap<Item, Object> definitions, final int slowPathItems, final boolean hasNonSimple) {
+		this.definitions = definitions;
+		this.slowPathItems = slowPathItems;
+		this.hasNonSimple = hasNonSimple;
+	}
+
+	public static <D> DefinitionIndex<D> empty() {
+		return new DefinitionIndex<>(new Reference2ObjectOpenHashMap<>(0), 0, false);
+	}
+
+	/**
+	 * @param definitions The definitions, in the order they should be matched in
+	 * @param ingredient  Gets the ingredient of a definition
+	 */
+	public static <D> DefinitionIndex<D> build(final Collection<D> definitions, final Function<D, Ingredient> ingredient) {
+		final var index = new Reference2ObjectOpenHashMap<Item, Object>();
+		int slowPathItems = 0;
+		boolean seenNonSimple = false;
+		for (final var definition : definitions) {
+			final var definitionIngredient = ingredient.apply(definition);
+			final boolean simple = definitionIngredient.isSimple();
+			// An earlier non-simple definition may match items it doesn't list, it has to be tested first
+			final boolean slow = !simple || seenNonSimple;
+			for (final var stack : definitionIngredient.getItems()) {
+				// The first definition that could match wins, same as a linear scan
+				if (index.containsKey(stack.getItem())) continue;
+				index.put(stack.getItem(), slow ? SLOW_PATH : definition);
+				if (slow) slowPathItems++;
+			}
+			seenNonSimple |= !simple;
+		}
+		index.trim();
+		return new DefinitionIndex<>(index, slowPathItems, seenNonSimple);
+	}
+
+	/**
+	 * @param slowPath Resolves the definition the slow way, used for items whose definition depends on data components or
+	 *                 may match a non-simple ingredient
+	 *
+	 * @return The definition for the stack or null if it has none
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public D get(final ItemStack stack, final Function<ItemStack, @Nullable D> slowPath) {
+		final var definition = definitions.get(stack.getItem());
+		if (definition == SLOW_PATH || (definition == null && hasNonSimple)) return slowPath.apply(stack);
+		return (D) definition;
+	}
+
+	public int size() {
+		return definitions.size();
+	}
+
+	public int slowPathItems() {
+		return slowPathItems;
+	}
+
+	/**
+	 * @return Rough size of the index tables in bytes, assuming compressed references
+	 */
+	public long estimatedBytes() {
+		// Open hash map with separate key and value arrays plus the null key slot
+		final long capacity = HashCommon.arraySize(definitions.size(), 0.75F) + 1L;
+		return 2 * (16 + capacity * Integer.BYTES) + 48;
+	}
+}
@@ -0,0 +1,84 @@
+package com.example.examplemod.common.data;
+
+import com.example.examplemod.ExampleMod;
+import net.dries007.tfc.common.component.heat.*;
+import net.dries007.tfc.common.component.size.*;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.world.item.ItemStack;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Item to TFC heat and size definition index. TFC resolves definitions by testing ingredients, which forges, crucibles and
+ * inventories do constantly. This resolves them once per data reload into identity keyed maps so lookups are a single hash
+ * lookup. Definitions which depend on data components, or which a non-simple ingredient may shadow, fall back to TFC's own
+ * lookup.
+ */
+public final class ItemDefinitionIndex {
+
+	/**
+	 * Bumped by every invalidation, a snapshot is current while its generation matches
+	 */
+	private static final AtomicInteger GENERATION = new AtomicInteger();
+
+	private static volatile Snapshot snapshot = Snapshot.EMPTY;
+
+	@Nullable
+	public static HeatDefinition heat(final ItemStack stack) {
+		return current().heat.get(stack, HeatCapability::getDefinition);
+	}
+
+	@Nullable
+	public static ItemSizeDefinition size(final ItemStack stack) {
+		return current().size.get(stack, ItemDefinitionIndex::slowSize);
+	}
+
+	/**
+	 * Marks the index for a rebuild on next use, call whenever TFC's definitions or tags change
+	 */
+	public static void invalidate() {
+		GENERATION.incrementAndGet();
+	}
+
+	public static Snapshot current() {
+		final var current = snapshot;
+		if (current.generation == GENERATION.get()) return current;
+		synchronized (ItemDefinitionIndex.class) {
+			// Read the generation before the definitions, an invalidation landing mid build leaves the snapshot out of date
+			final int generation = GENERATION.get();
+			if (snapshot.generation != generation) {
+				snapshot = build(generation);
+			}
+			return snapshot;
+		}
+	}
+
+	@Nullable
+	private static ItemSizeDefinition slowSize(final ItemStack stack) {
+		return ItemSizeManager.get(stack) instanceof ItemSizeDefinition definition ? definition : null;
+	}
+
+	private static Snapshot build(final int generation) {
+		final long start = System.nanoTime();
+		final var heat = DefinitionIndex.build(HeatCapability.MANAGER.getValues(), HeatDefinition::ingredient);
+		final var size = DefinitionIndex.build(ItemSizeManager.MANAGER.getValues(), ItemSizeDefinition::ingredient);
+		final var snapshot = new Snapshot(heat, size, System.nanoTime() - start, generation);
+		ExampleMod.LOG.info("Built item definition index: {} heat and {} size entries ({} on the slow path) in {}ms, ~{} KiB", heat.size(),
+				size.size(), heat.slowPathItems() + size.slowPathItems(), snapshot.buildNanos / 1_000_000D, snapshot.estimatedBytes() / 1024);
+		return snapshot;
+	}
+
+	/**
+	 * @param buildNanos How long the index took to build
+	 * @param generation The invalidation generation the index was built for
+	 */
+	public record Snapshot(DefinitionIndex<HeatDefinition> heat, DefinitionIndex<ItemSizeDefinition> size, long buildNanos, int generation) {
+
+		private static final Snapshot EMPTY = new Snapshot(DefinitionIndex.empty(), DefinitionIndex.empty(), 0, -1);
+
+		public long estimatedBytes() {
+			return heat.estimatedBytes() + size.estimatedBytes();
+		}
+	}
+}
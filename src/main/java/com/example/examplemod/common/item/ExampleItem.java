@@ -2,8 +2,10 @@ package com.example.examplemod.common.item;
 
 import com.example.examplemod.ExampleMod;
 import com.example.examplemod.network.ExampleServerboundPacket;
+import com.example.examplemod.profiling.ExampleModJfrEvents;
 import net.neoforged.neoforge.network.PacketDistributor;
 
+import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.network.chat.Component;
 import net.minecraft.world.*;
 import net.minecraft.world.entity.player.Player;
@@ -16,6 +18,12 @@ public class ExampleItem extends Item {
 
 	public static final String EXAMPLE_TOOLTIP = ExampleMod.lang("tooltip.example_item.example_tooltip");
 
+	/**
+	 * Tooltips are built every frame, so reuse the component. Pass the data components the line depends on if it
+	 * isn't the same for every stack
+	 */
+	private static final TooltipCache.Line TOOLTIP = TooltipCache.line(stack -> Component.translatable(EXAMPLE_TOOLTIP));
+
 	public ExampleItem(final Properties properties) {
 		super(properties);
 	}
@@ -26,6 +34,13 @@ public class ExampleItem extends Item {
 			PacketDistributor.sendToServer(new ExampleServerboundPacket(Component.literal("This component went over the network")));
 			return InteractionResultHolder.consume(player.getItemInHand(usedHand));
 		}
+		final var event = new ExampleModJfrEvents.ItemUse();
+		if (event.shouldCommit()) {
+			event.item = BuiltInRegistries.ITEM.getKey(this).toString();
+			event.player = player.getGameProfile().getName();
+			event.hand = usedHand.name();
+			event.commit();
+		}
 		return InteractionResultHolder.success(player.getItemInHand(usedHand));
 	}
 
@@ -33,6 +48,6 @@ public class ExampleItem extends Item {
 	public void appendHoverText(final ItemStack stack, final TooltipContext context, final List<Component> tooltipComponents,
 			final TooltipFlag tooltipFlag) {
 		super.appendHoverText(stack, context, tooltipComponents, tooltipFlag);
-		tooltipComponents.add(Component.translatable(EXAMPLE_TOOLTIP));
+		tooltipComponents.add(TOOLTIP.get(stack));
 	}
 }
\ No newline at end of file
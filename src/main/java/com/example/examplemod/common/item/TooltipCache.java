@@ -0,0 +1,148 @@
+package com.example.examplemod.common.item;
+
+import com.example.examplemod.config.ExampleModConfig;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.core.component.DataComponentType;
+import net.minecraft.network.chat.*;
+import net.minecraft.world.item.*;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.*;
+
+/**
+ * Caches tooltip lines so tooltips which are shown every frame (or for every entry in a JEI/EMI list) don't build new
+ * components each time. Lines are keyed by the item and the values of the data components they depend on and evicted
+ * least recently used first. Everything is cleared on resource reload (which includes changing the language).
+ * <p>
+ * Every call hands out a shallow {@link MutableComponent#copy() copy} of the cached line, so a caller appending to or styling
+ * its line can't change what everyone else sees. The copy shares the contents, including the already resolved translation.
+ * <p>
+ * Nothing here touches client only classes, the cache is only filled where tooltips are built.
+ */
+public final class TooltipCache {
+
+	private static final List<Runnable> CLEARERS = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Creates a cached tooltip line
+	 *
+	 * @param factory            Builds the line for a stack, must only depend on the item and the given data components
+	 * @param relevantComponents The data components the line depends on
+	 */
+	public static Line line(final Function<ItemStack, Component> factory, final DataComponentType<?>... relevantComponents) {
+		final var line = new Line(factory, relevantComponents);
+		CLEARERS.add(line::clear);
+		return line;
+	}
+
+	/**
+	 * Creates a cached tooltip line which is the same for every stack
+	 */
+	public static Supplier<MutableComponent> constant(final Supplier<Component> factory) {
+		final var constant = new Constant(factory);
+		CLEARERS.add(constant::clear);
+		return constant;
+	}
+
+	public static void clear() {
+		CLEARERS.forEach(Runnable::run);
+	}
+
+	private static int maxSize() {
+		// Holds the defaults until the client config is loaded
+		return ExampleModConfig.CLIENT.snapshot().tooltipCacheSize();
+	}
+
+	public static final class Line {
+
+		private final Function<ItemStack, Component> factory;
+		private final DataComponentType<?>[] relevantComponents;
+		private final Long2ObjectLinkedOpenHashMap<Entry> entries = new Long2ObjectLinkedOpenHashMap<>();
+
+		private Line(final Function<ItemStack, Component> factory, final DataComponentType<?>[] relevantComponents) {
+			this.factory = factory;
+			this.relevantComponents = relevantComponents;
+		}
+
+		/**
+		 * Gets the cached line for the stack, building it if needed. Tooltips can be built off thread (JEI builds its search
+		 * index in the background) so this is synchronized
+		 */
+		public synchronized MutableComponent get(final ItemStack stack) {
+			final var item = stack.getItem();
+			int componentsHash = 1;
+			for (final var type : relevantComponents) {
+				componentsHash = 31 * componentsHash + Objects.hashCode(stack.get(type));
+			}
+			final long key = (long) System.identityHashCode(item) << 32 | componentsHash & 0xFFFFFFFFL;
+
+			final var entry = entries.getAndMoveToLast(key);
+			if (entry != null && entry.matches(item, stack, relevantComponents)) return entry.line.copy();
+
+			final var line = factory.apply(stack);
+			entries.putAndMoveToLast(key, new Entry(item, componentValues(stack), line));
+			final int maxSize = maxSize();
+			while (entries.size() > maxSize) {
+				entries.removeFirst();
+			}
+			return line.copy();
+		}
+
+		private Object @Nullable [] componentValues(final ItemStack stack) {
+			if (relevantComponents.length == 0) return null;
+			final var values = new Object[relevantComponents.length];
+			for (int i = 0; i < relevantComponents.length; i++) {
+				values[i] = stack.get(relevantComponents[i]);
+			}
+			return values;
+		}
+
+		private synchronized void clear() {
+			entries.clear();
+			entries.trim();
+		}
+	}
+
+	/**
+	 * @param componentValues The values of the relevant components when the line was built, used to rule out hash collisions
+	 */
+	private record Entry(Item item, Object @Nullable [] componentValues, Component line) {
+
+		private boolean matches(final Item item, final ItemStack stack, final DataComponentType<?>[] relevantComponents) {
+			if (this.item != item) return false;
+			if (componentValues == null) return true;
+			for (int i = 0; i < relevantComponents.length; i++) {
+				if (!Objects.equals(componentValues[i], stack.get(relevantComponents[i]))) return false;
+			}
+			return true;
+		}
+	}
+
+	private static final class Constant implements Supplier<MutableComponent> {
+
+		private final Supplier<Component> factory;
+		@Nullable
+		private volatile Component value;
+
+		private Constant(final Supplier<Component> factory) {
+			this.factory = factory;
+		}
+
+		@Override
+		public MutableComponent get() {
+			var value = this.value;
+			if (value == null) {
+				value = factory.get();
+				this.value = value;
+			}
+			return value.copy();
+		}
+
+		private void clear() {
+			value = null;
+		}
+	}
+}
\ No newline at end of file
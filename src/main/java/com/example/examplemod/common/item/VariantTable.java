@@ -0,0 +1,142 @@
+package com.example.examplemod.common.item;
+
+import com.example.examplemod.ExampleMod;
+import com.example.examplemod.profiling.StartupTimeline;
+import net.neoforged.neoforge.registries.*;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.Item.Properties;
+
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.Stream;
+
+/**
+ * Items registered for every combination of two enums, such as metal by item type. Holders are kept in a single array
+ * indexed by the ordinals of both keys instead of nested maps, so a lookup is two ordinal reads and an array access and
+ * the table itself costs one reference per combination.
+ * <p>
+ * The time spent constructing the items is summed up and recorded in the {@link StartupTimeline} once the last item of the
+ * table has been constructed.
+ *
+ * @param <R> The row enum
+ * @param <C> The column enum
+ * @param <I> The item type
+ */
+public final class VariantTable<R extends Enum<R>, C extends Enum<C>, I extends Item> {
+
+	private final String name;
+	private final R[] rows;
+	private final C[] columns;
+	private final DeferredItem<I>[] holders;
+	private int size;
+	private int constructed;
+	private long constructNanos;
+
+	private VariantTable(final String name, final R[] rows, final C[] columns, final DeferredItem<I>[] holders) {
+		this.name = name;
+		this.rows = rows;
+		this.columns = columns;
+		this.holders = holders;
+	}
+
+	/**
+	 * Registers an item for every row and column combination accepted by the filter
+	 *
+	 * @param name    Name of the table, used when reporting
+	 * @param filter  Which combinations exist
+	 * @param id      The registry path of a combination
+	 * @param factory Creates the item of a combination from its properties
+	 */
+	public static <R extends Enum<R>, C extends Enum<C>, I extends Item> VariantTable<R, C, I> register(final DeferredRegister.Items items,
+			final String name, final Class<R> rowType, final Class<C> columnType, final BiPredicate<R, C> filter, final BiFunction<R, C, String> id,
+			final BiFunction<R, C, Function<Properties, ? extends I>> factory) {
+		return register(items::registerItem, name, rowType, columnType, filter, id, factory);
+	}
+
+	@SuppressWarnings("unchecked")
+	static <R extends Enum<R>, C extends Enum<C>, I extends Item> VariantTable<R, C, I> register(final Registrar<I> items, final String name,
+			final Class<R> rowType, final Class<C> columnType, final BiPredicate<R, C> filter, final BiFunction<R, C, String> id,
+			final BiFunction<R, C, Function<Properties, ? extends I>> factory) {
+		final R[] rows = rowType.getEnumConstants();
+		final C[] columns = columnType.getEnumConstants();
+		final var table = new VariantTable<R, C, I>(name, rows, columns, new DeferredItem[rows.length * columns.length]);
+		for (final var row : rows) {
+			for (final var column : columns) {
+				if (!filter.test(row, column)) continue;
+				final var itemFactory = factory.apply(row, column);
+				table.holders[table.index(row, column)] = items.register(id.apply(row, column),
+						properties -> table.construct(itemFactory, properties));
+				table.size++;
+			}
+		}
+		return table;
+	}
+
+	private I construct(final Function<Properties, ? extends I> factory, final Properties properties) {
+		final long start = System.nanoTime();
+		final I item = factory.apply(properties);
+		constructNanos += System.nanoTime() - start;
+		if (++constructed == size) {
+			StartupTimeline.recordDuration("VariantTable/" + name, constructNanos);
+			ExampleMod.LOG.debug("Constructed {} {} variants ({}x{} table, {} slots) in {}ms", size, name, rows.length, columns.length,
+					holders.length, constructNanos / 1_000_000D);
+		}
+		return item;
+	}
+
+	/**
+	 * @return The holder of a combination
+	 *
+	 * @throws IllegalArgumentException If the combination was filtered out
+	 */
+	public DeferredItem<I> get(final R row, final C column) {
+		final var holder = getOrNull(row, column);
+		if (holder == null) throw new IllegalArgumentException("No " + name + " variant for " + row + " and " + column);
+		return holder;
+	}
+
+	@Nullable
+	public DeferredItem<I> getOrNull(final R row, final C column) {
+		return holders[index(row, column)];
+	}
+
+	public boolean has(final R row, final C column) {
+		return getOrNull(row, column) != null;
+	}
+
+	/**
+	 * @return Every registered holder, row by row
+	 */
+	public Stream<DeferredItem<I>> stream() {
+		return Arrays.stream(holders).filter(Objects::nonNull);
+	}
+
+	/**
+	 * @return The holders of a row, in column order
+	 */
+	public Stream<DeferredItem<I>> row(final R row) {
+		return Arrays.stream(holders, row.ordinal() * columns.length, (row.ordinal() + 1) * columns.length).filter(Objects::nonNull);
+	}
+
+	private int index(final R row, final C column) {
+		return row.ordinal() * columns.length + column.ordinal();
+	}
+
+	/**
+	 * @return The number of registered combinations
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Where the items of a table are registered, {@link DeferredRegister.Items#registerItem} outside of tests
+	 */
+	@FunctionalInterface
+	interface Registrar<I extends Item> {
+
+		DeferredItem<I> register(String id, Function<Properties, ? extends I> factory);
+	}
+}
@@ -0,0 +1,160 @@
+package com.example.examplemod.common.recipe;
+
+import com.example.examplemod.ExampleMod;
+import net.dries007.tfc.common.recipes.*;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.world.item.*;
+import net.minecraft.world.item.crafting.*;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Indexed lookup for anvil welding and knapping recipes, for addon code which needs to find them. Rather than scanning every
+ * recipe of the type, welding recipes are keyed by their pair of input items and knapping recipes by their knapping type and
+ * the 5x5 grid they accept. TFC's own anvils and knapping screens keep doing their own lookups, this doesn't replace them.
+ * <p>
+ * Built lazily per recipe manager and thrown away after every recipe reload.
+ */
+public final class AddonRecipeIndex {
+
+	/**
+	 * Singleplayer has both the client and the server recipe manager in use at once so indexes are kept per manager
+	 */
+	private static final int MAX_MANAGERS = 2;
+
+	private static volatile List<Indexes> indexes = List.of();
+
+	/**
+	 * @return The welding recipe matching the two inputs, in either order
+	 */
+	@Nullable
+	public static RecipeHolder<WeldingRecipe> welding(final RecipeManager recipeManager, final ItemStack first, final ItemStack second) {
+		return get(recipeManager).welding.find(new ItemPair(first.getItem(), second.getItem()), holder -> weldingMatches(holder, first, second));
+	}
+
+	/**
+	 * Finds the welding recipe by testing every recipe in turn, what {@link #welding} replaces. For checking the index
+	 */
+	@Nullable
+	public static RecipeHolder<WeldingRecipe> scanWelding(final RecipeManager recipeManager, final ItemStack first, final ItemStack second) {
+		for (final var holder : recipeManager.getAllRecipesFor(TFCRecipeTypes.WELDING.get())) {
+			if (weldingMatches(holder, first, second)) return holder;
+		}
+		return null;
+	}
+
+	private static boolean weldingMatches(final RecipeHolder<WeldingRecipe> holder, final ItemStack first, final ItemStack second) {
+		final var recipe = holder.value();
+		return recipe.getFirstInput().test(first) && recipe.getSecondInput().test(second)
+				|| recipe.getFirstInput().test(second) && recipe.getSecondInput().test(first);
+	}
+
+	/**
+	 * @param grid    The grid on the knapping screen
+	 * @param matches The full recipe test for the screen
+	 */
+	@Nullable
+	public static RecipeHolder<KnappingRecipe> knapping(final RecipeManager recipeManager, final KnappingType type,
+			final KnappingPattern grid, final Predicate<KnappingRecipe> matches) {
+		final var index = get(recipeManager).knapping;
+		final int bits = KnappingPatternKey.of(grid);
+		final Predicate<RecipeHolder<KnappingRecipe>> test = holder -> matches.test(holder.value());
+		if (bits == -1) return index.scanUnindexed(test);
+		return index.find(new KnappingKey(type, bits), test);
+	}
+
+	/**
+	 * Finds the knapping recipe by testing every recipe in turn, what {@link #knapping} replaces. For checking the index
+	 */
+	@Nullable
+	public static RecipeHolder<KnappingRecipe> scanKnapping(final RecipeManager recipeManager, final Predicate<KnappingRecipe> matches) {
+		for (final var holder : recipeManager.getAllRecipesFor(TFCRecipeTypes.KNAPPING.get())) {
+			if (matches.test(holder.value())) return holder;
+		}
+		return null;
+	}
+
+	/**
+	 * Marks the index for a rebuild on next use, call whenever recipes change
+	 */
+	public static void invalidate() {
+		indexes = List.of();
+	}
+
+	public static Indexes get(final RecipeManager recipeManager) {
+		for (final var current : indexes) {
+			if (current.recipeManager == recipeManager) return current;
+		}
+		synchronized (AddonRecipeIndex.class) {
+			final var known = indexes;
+			for (final var current : known) {
+				if (current.recipeManager == recipeManager) return current;
+			}
+			final var built = build(recipeManager);
+			final var updated = new ArrayList<Indexes>(MAX_MANAGERS);
+			updated.add(built);
+			known.stream().limit(MAX_MANAGERS - 1).forEach(updated::add);
+			indexes = List.copyOf(updated);
+			return built;
+		}
+	}
+
+	private static Indexes build(final RecipeManager recipeManager) {
+		final long start = System.nanoTime();
+
+		final var welding = RecipeIndex.<ItemPair, RecipeHolder<WeldingRecipe>>builder();
+		for (final var holder : recipeManager.getAllRecipesFor(TFCRecipeTypes.WELDING.get())) {
+			final var recipe = holder.value();
+			if (!recipe.getFirstInput().isSimple() || !recipe.getSecondInput().isSimple()) {
+				welding.addUnindexed(holder);
+				continue;
+			}
+			final var keys = new HashSet<ItemPair>();
+			for (final var first : recipe.getFirstInput().getItems()) {
+				for (final var second : recipe.getSecondInput().getItems()) {
+					// Welding accepts the inputs in either order
+					keys.add(new ItemPair(first.getItem(), second.getItem()));
+					keys.add(new ItemPair(second.getItem(), first.getItem()));
+				}
+			}
+			welding.add(holder, keys);
+		}
+
+		final var knapping = RecipeIndex.<KnappingKey, RecipeHolder<KnappingRecipe>>builder();
+		for (final var holder : recipeManager.getAllRecipesFor(TFCRecipeTypes.KNAPPING.get())) {
+			final var recipe = holder.value();
+			final var placements = KnappingPatternKey.placements(recipe.getPattern());
+			if (placements.isEmpty()) {
+				knapping.addUnindexed(holder);
+				continue;
+			}
+			final var keys = new ArrayList<KnappingKey>(placements.size());
+			for (final int bits : placements) {
+				keys.add(new KnappingKey(recipe.getKnappingType(), bits));
+			}
+			knapping.add(holder, keys);
+		}
+
+		final var indexes = new Indexes(recipeManager, welding.build(), knapping.build(), System.nanoTime() - start);
+		ExampleMod.LOG.info("Built recipe index: {} welding recipes under {} keys, {} knapping recipes under {} keys in {}ms",
+				indexes.welding.size(), indexes.welding.keyCount(), indexes.knapping.size(), indexes.knapping.keyCount(),
+				indexes.buildNanos / 1_000_000D);
+		return indexes;
+	}
+
+	/**
+	 * @param recipeManager The recipe manager the indexes were built from
+	 * @param buildNanos    How long the indexes took to build
+	 */
+	public record Indexes(RecipeManager recipeManager, RecipeIndex<ItemPair, RecipeHolder<WeldingRecipe>> welding,
+	                      RecipeIndex<KnappingKey, RecipeHolder<KnappingRecipe>> knapping, long buildNanos) {}
+
+	public record ItemPair(Item first, Item second) {}
+
+	/**
+	 * @param grid The packed grid, see {@link KnappingPatternKey}
+	 */
+	public record KnappingKey(KnappingType type, int grid) {}
+}
@@ -0,0 +1,69 @@
+package com.example.examplemod.common.recipe;
+
+import net.dries007.tfc.common.recipes.KnappingPattern;
+
+import java.util.*;
+
+/**
+ * Packs a 5x5 knapping grid into the low 25 bits of an int, bit {@code y * 5 + x} being set when that cell is still there
+ */
+public final class KnappingPatternKey {
+
+	public static final int SIZE = 5;
+
+	private KnappingPatternKey() {
+	}
+
+	/**
+	 * @return The packed grid or -1 if the pattern isn't a full 5x5 grid
+	 */
+	public static int of(final KnappingPattern grid) {
+		if (grid.getWidth() != SIZE || grid.getHeight() != SIZE) return -1;
+		int bits = 0;
+		for (int y = 0; y < SIZE; y++) {
+			for (int x = 0; x < SIZE; x++) {
+				if (grid.get(x, y)) bits |= 1 << (y * SIZE + x);
+			}
+		}
+		return bits;
+	}
+
+	/**
+	 * Every full grid a recipe pattern could match. Patterns smaller than the grid may sit at any offset, be mirrored and
+	 * have either state around them, the recipe itself decides which of those actually match.
+	 *
+	 * @return The packed grids or an empty set if the pattern is larger than the grid
+	 */
+	public static Set<Integer> placements(final KnappingPattern pattern) {
+		final int width = pattern.getWidth();
+		final int height = pattern.getHeight();
+		if (width > SIZE || height > SIZE) return Set.of();
+
+		final var placements = new HashSet<Integer>();
+		for (int offsetX = 0; offsetX <= SIZE - width; offsetX++) {
+			for (int offsetY = 0; offsetY <= SIZE - height; offsetY++) {
+				for (final boolean mirror : new boolean[] {false, true}) {
+					for (final boolean outside : new boolean[] {false, true}) {
+						placements.add(place(pattern, offsetX, offsetY, mirror, outside));
+					}
+				}
+			}
+		}
+		return placements;
+	}
+
+	private static int place(final KnappingPattern pattern, final int offsetX, final int offsetY, final boolean mirror,
+			final boolean outside) {
+		int bits = 0;
+		for (int y = 0; y < SIZE; y++) {
+			for (int x = 0; x < SIZE; x++) {
+				final int patternX = x - offsetX;
+				final int patternY = y - offsetY;
+				final boolean inside = patternX >= 0 && patternY >= 0 && patternX < pattern.getWidth() && patternY < pattern.getHeight();
+				final boolean set = inside ? pattern.get(mirror ? pattern.getWidth() - 1 - patternX : patternX, patternY) : outside;
+				if (set) bits |= 1 << (y * SIZE + x);
+			}
+		}
+		return bits;
+	}
+}
@@ -0,0 +1,133 @@
+package com.example.examplemod.common.recipe;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Hash index over a set of recipes. Every recipe is filed under the keys an input matching it could produce, lookups then
+ * only have to test the handful of recipes under a single key instead of every recipe of the type. Recipes whose keys
+ * can't be enumerated ahead of time are kept aside and always tested. Candidates are tested in the order the recipes were
+ * added, so a lookup finds the same recipe a linear scan would.
+ * <p>
+ * Immutable once built.
+ *
+ * @param <K> The key type, must have sensible {@link Object#equals} and {@link Object#hashCode}
+ * @param <R> The recipe type
+ */
+public final class RecipeIndex<K, R> {
+
+	private final Map<K, List<Entry<R>>> indexed;
+	private final List<Entry<R>> unindexed;
+	private final int recipes;
+
+	private RecipeIndex(final Map<K, List<Entry<R>>> indexed, final List<Entry<R>> unindexed, final int recipes) {
+		this.indexed = indexed;
+		this.unindexed = unindexed;
+		this.recipes = recipes;
+	}
+
+	public static <K, R> Builder<K, R> builder() {
+		return new Builder<>();
+	}
+
+	/**
+	 * @param key     The key of the input
+	 * @param matches The full recipe test, the index only narrows down the candidates
+	 *
+	 * @return The first candidate recipe which matches or null if none do
+	 */
+	@Nullable
+	public R find(final K key, final Predicate<R> matches) {
+		final var candidates = indexed.getOrDefault(key, List.of());
+		// Both lists are in the order the recipes were added, merge them so the earliest match wins
+		int next = 0;
+		int nextUnindexed = 0;
+		while (next < candidates.size() || nextUnindexed < unindexed.size()) {
+			final Entry<R> entry;
+			if (nextUnindexed == unindexed.size() || next < candidates.size() && candidates.get(next).order < unindexed.get(nextUnindexed).order) {
+				entry = candidates.get(next++);
+			} else {
+				entry = unindexed.get(nextUnindexed++);
+			}
+			if (matches.test(entry.recipe)) return entry.recipe;
+		}
+		return null;
+	}
+
+	/**
+	 * Tests only the recipes which couldn't be indexed, for inputs that have no key
+	 */
+	@Nullable
+	public R scanUnindexed(final Predicate<R> matches) {
+		for (final var entry : unindexed) {
+			if (matches.test(entry.recipe)) return entry.recipe;
+		}
+		return null;
+	}
+
+	/**
+	 * @return The number of recipes in the index
+	 */
+	public int size() {
+		return recipes;
+	}
+
+	/**
+	 * @return The number of distinct keys
+	 */
+	public int keyCount() {
+		return indexed.size();
+	}
+
+	/**
+	 * @return The number of recipes which are tested on every lookup
+	 */
+	public int unindexedCount() {
+		return unindexed.size();
+	}
+
+	public static final class Builder<K, R> {
+
+		private final Map<K, List<Entry<R>>> indexed = new HashMap<>();
+		private final List<Entry<R>> unindexed = new ArrayList<>();
+		private int recipes;
+
+		private Builder() {
+		}
+
+		/**
+		 * Files a recipe under all the given keys, recipes should be added in the order a linear scan would test them in
+		 */
+		public Builder<K, R> add(final R recipe, final Collection<K> keys) {
+			final var entry = new Entry<>(recipes++, recipe);
+			for (final var key : keys) {
+				final var candidates = indexed.computeIfAbsent(key, k -> new ArrayList<>(1));
+				// Keys may repeat when the same item shows up in more than one place of a recipe
+				if (candidates.isEmpty() || candidates.getLast() != entry) {
+					candidates.add(entry);
+				}
+			}
+			return this;
+		}
+
+		/**
+		 * Adds a recipe which has to be tested for every input
+		 */
+		public Builder<K, R> addUnindexed(final R recipe) {
+			unindexed.add(new Entry<>(recipes++, recipe));
+			return this;
+		}
+
+		public RecipeIndex<K, R> build() {
+			indexed.replaceAll((key, candidates) -> List.copyOf(candidates));
+			return new RecipeIndex<>(Map.copyOf(indexed), List.copyOf(unindexed), recipes);
+		}
+	}
+
+	/**
+	 * @param order The position the recipe was added in
+	 */
+	private record Entry<R>(int order, R recipe) {}
+}
@@ -0,0 +1,128 @@
+package com.example.examplemod.common.scheduler;
+
+import com.example.examplemod.config.ExampleModConfig;
+import it.unimi.dsi.fastutil.HashCommon;
+
+import net.minecraft.server.level.ServerLevel;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.*;
+
+/**
+ * Per level scheduler for periodic work. Instead of every task running on the exact tick it becomes due tasks are staggered
+ * by the hash of their name, run until the tick budget is used up and any leftover work is carried into the following tick.
+ * <p>
+ * Only touched from the server thread.
+ */
+public final class LevelTickScheduler {
+
+	private static final List<ScheduledTask> TASKS = new CopyOnWriteArrayList<>();
+	private static final Map<ServerLevel, LevelTickScheduler> SCHEDULERS = new IdentityHashMap<>();
+
+	private final ArrayDeque<ScheduledTask> pending = new ArrayDeque<>();
+	private final BitSet pendingTasks = new BitSet();
+	private long executed;
+	private long deferred;
+	private long skipped;
+
+	private LevelTickScheduler() {
+	}
+
+	/**
+	 * Registers a task to be run on every server level
+	 *
+	 * @param name        Unique name of the task
+	 * @param period      How often (in ticks) the task should run
+	 * @param budgetNanos The expected cost of a single run in nanoseconds
+	 * @param action      The work to run
+	 */
+	public static synchronized ScheduledTask register(final String name, final int period, final long budgetNanos,
+			final Consumer<ServerLevel> action) {
+		if (period <= 0) throw new IllegalArgumentException("Period must be positive, got " + period + " for task " + name);
+		if (TASKS.stream().anyMatch(task -> task.name().equals(name))) {
+			throw new IllegalStateException("Duplicate scheduled task " + name);
+		}
+		final var task = new ScheduledTask(TASKS.size(), name, period, budgetNanos, Math.floorMod(HashCommon.mix(name.hashCode()), period),
+				action);
+		TASKS.add(task);
+		return task;
+	}
+
+	public static LevelTickScheduler get(final ServerLevel level) {
+		return SCHEDULERS.computeIfAbsent(level, key -> new LevelTickScheduler());
+	}
+
+	public static void remove(final ServerLevel level) {
+		SCHEDULERS.remove(level);
+	}
+
+	/**
+	 * Visits the scheduler of every loaded level
+	 */
+	public static void forEach(final BiConsumer<ServerLevel, LevelTickScheduler> consumer) {
+		SCHEDULERS.forEach(consumer);
+	}
+
+	/**
+	 * Queues up any tasks which became due this tick and runs as much pending work as fits in the tick budget
+	 */
+	public void tick(final ServerLevel level) {
+		final long gameTime = level.getGameTime();
+		for (final var task : TASKS) {
+			if (!task.isDue(gameTime)) continue;
+			// The previous run never got a chance to execute, collapse the two into a single run
+			if (pendingTasks.get(task.id())) {
+				skipped++;
+				continue;
+			}
+			pendingTasks.set(task.id());
+			pending.addLast(task);
+		}
+
+		if (pending.isEmpty()) return;
+
+		final long budget = ExampleModConfig.SERVER.snapshot().tickSchedulerBudgetNanos();
+		final long start = System.nanoTime();
+		boolean ranAny = false;
+		while (!pending.isEmpty()) {
+			final var task = pending.peekFirst();
+			// Always run at least one task so a task with a budget larger than the tick budget still makes progress
+			if (ranAny && System.nanoTime() - start + task.budgetNanos() > budget) break;
+			pending.pollFirst();
+			pendingTasks.clear(task.id());
+			task.action().accept(level);
+			executed++;
+			ranAny = true;
+		}
+		deferred += pending.size();
+	}
+
+	/**
+	 * @return The number of task runs which have completed
+	 */
+	public long executedCount() {
+		return executed;
+	}
+
+	/**
+	 * @return The number of times a due task was carried over into the next tick because the budget ran out
+	 */
+	public long deferredCount() {
+		return deferred;
+	}
+
+	/**
+	 * @return The number of task runs which were dropped because the task was still pending from a previous period
+	 */
+	public long skippedCount() {
+		return skipped;
+	}
+
+	/**
+	 * @return The number of tasks currently waiting to run
+	 */
+	public int pendingCount() {
+		return pending.size();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,278 @@
+package com.example.examplemod.common.scheduler;
+
+import com.example.examplemod.ExampleModLog;
+import com.example.examplemod.profiling.LatencyHistogram;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.server.level.ServerLevel;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.*;
+
+/**
+ * Runs computation off the server thread and hands the result back to the tick of the level it was submitted for. The
+ * computation must not touch the level or any other game state, anything it needs should be copied out beforehand. The
+ * completion then runs on the server thread at the end of the level's tick where it is free to apply the result.
+ * <p>
+ * Submitting is thread safe, completions are drained from {@link net.neoforged.neoforge.event.tick.LevelTickEvent.Post}.
+ * When a level unloads its outstanding tasks are cancelled and their completions never run, tasks submitted for it
+ * afterward are returned already cancelled.
+ */
+public final class OffThreadExecutor {
+
+	private static final ExampleModLog.CallSite TASK_FAILED = ExampleModLog.error("Off thread task {} failed");
+	private static final ExampleModLog.CallSite COMPLETION_FAILED = ExampleModLog.error("Completion of off thread task {} failed");
+
+	private static final ExecutorService CPU_POOL = createCpuPool();
+	private static final ExecutorService BLOCKING_POOL = Executors.newThreadPerTaskExecutor(
+			Thread.ofVirtual().name("ExampleMod-Blocking-", 1).factory());
+	private static final Map<ServerLevel, OffThreadExecutor> EXECUTORS = new ConcurrentHashMap<>();
+	/**
+	 * Levels which were removed, so a late submit doesn't bring their executor back. Weak so unloaded levels can be collected
+	 */
+	private static final Set<ServerLevel> REMOVED = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+	private final Set<Task<?>> inFlight = ConcurrentHashMap.newKeySet();
+	private final ConcurrentLinkedQueue<Task<?>> completed = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger completedDepth = new AtomicInteger();
+	private final AtomicLong submitted = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong cancelled = new AtomicLong();
+	private final LatencyHistogram computeTimes = new LatencyHistogram();
+	private final LatencyHistogram handOffTimes = new LatencyHistogram();
+	private long applied;
+	private volatile boolean closed;
+
+	private OffThreadExecutor() {
+	}
+
+	/**
+	 * Starts computing a result off thread for the given level
+	 *
+	 * @param name        Used when logging failures
+	 * @param pool        Where the computation runs
+	 * @param computation The work itself, must not touch game state
+	 * @param completion  Receives the result on the server thread once it is ready
+	 *
+	 * @return The task, which may be used to cancel it. Already cancelled if the level was removed
+	 */
+	public static <T> Task<T> submit(final ServerLevel level, final String name, final Pool pool, final Supplier<T> computation,
+			final Consumer<? super T> completion) {
+		final var executor = EXECUTORS.compute(level, (key, existing) -> existing != null || REMOVED.contains(key) ? existing
+				: new OffThreadExecutor());
+		if (executor == null) {
+			// Nothing drains the level anymore, hand back a task which never runs
+			final var task = new Task<T>(new OffThreadExecutor(), name, computation, completion);
+			task.cancel();
+			return task;
+		}
+		final var task = new Task<T>(executor, name, computation, completion);
+		executor.inFlight.add(task);
+		executor.submitted.incrementAndGet();
+		// Removed in between, it may have missed this task while cancelling
+		if (executor.closed) {
+			task.cancel();
+			return task;
+		}
+		try {
+			task.future = (pool == Pool.CPU ? CPU_POOL : BLOCKING_POOL).submit(task::run);
+		} catch (final RejectedExecutionException exception) {
+			executor.inFlight.remove(task);
+			throw exception;
+		}
+		return task;
+	}
+
+	/**
+	 * Runs the completion of every task which finished since the last drain, called at the end of each level tick
+	 */
+	public static void drain(final ServerLevel level) {
+		final var executor = EXECUTORS.get(level);
+		if (executor != null) executor.drain();
+	}
+
+	/**
+	 * Cancels everything still outstanding for the level, called when it unloads
+	 */
+	public static void remove(final ServerLevel level) {
+		REMOVED.add(level);
+		final var executor = EXECUTORS.remove(level);
+		if (executor == null) return;
+		executor.closed = true;
+		executor.inFlight.forEach(Task::cancel);
+		Task<?> task;
+		while ((task = executor.completed.poll()) != null) {
+			task.cancel();
+		}
+		executor.completedDepth.set(0);
+	}
+
+	/**
+	 * Visits the executor of every level which submitted work
+	 */
+	public static void forEach(final BiConsumer<ServerLevel, OffThreadExecutor> consumer) {
+		EXECUTORS.forEach(consumer);
+	}
+
+	private static ExecutorService createCpuPool() {
+		// Leave a core for the server thread
+		final int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+		final var threadId = new AtomicInteger();
+		return Executors.newFixedThreadPool(threads, runnable -> {
+			final var thread = new Thread(runnable, "ExampleMod-Worker-" + threadId.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	private void drain() {
+		// Tasks completing while draining wait for the next tick
+		for (int remaining = completedDepth.get(); remaining > 0; remaining--) {
+			final var task = completed.poll();
+			if (task == null) return;
+			completedDepth.decrementAndGet();
+			handOffTimes.record(System.nanoTime() - task.finishedAt);
+			task.complete();
+		}
+	}
+
+	/**
+	 * @return The number of tasks submitted which haven't finished computing yet
+	 */
+	public int inFlightCount() {
+		return inFlight.size();
+	}
+
+	/**
+	 * @return The number of finished tasks waiting for their completion to run
+	 */
+	public int queuedCount() {
+		return completedDepth.get();
+	}
+
+	public long submittedCount() {
+		return submitted.get();
+	}
+
+	/**
+	 * @return The number of completions which have run, only touched on the server thread
+	 */
+	public long appliedCount() {
+		return applied;
+	}
+
+	public long failedCount() {
+		return failed.get();
+	}
+
+	public long cancelledCount() {
+		return cancelled.get();
+	}
+
+	/**
+	 * @return How long the computations took
+	 */
+	public LatencyHistogram.Stats computeStats() {
+		return computeTimes.stats();
+	}
+
+	/**
+	 * @return How long finished tasks waited for the level tick to pick them up
+	 */
+	public LatencyHistogram.Stats handOffStats() {
+		return handOffTimes.stats();
+	}
+
+	public enum Pool {
+		/**
+		 * A small pool of platform threads, for computation which keeps a core busy
+		 */
+		CPU,
+		/**
+		 * Virtual threads, for work which mostly waits such as file or network I/O
+		 */
+		BLOCKING
+	}
+
+	public static final class Task<T> {
+
+		private final OffThreadExecutor executor;
+		private final String name;
+		private final Supplier<T> computation;
+		private final Consumer<? super T> completion;
+		/**
+		 * Set once the task is either cancelled or its completion is about to run
+		 */
+		private final AtomicBoolean done = new AtomicBoolean();
+		@Nullable
+		private volatile Future<?> future;
+		@Nullable
+		private T result;
+		@Nullable
+		private Throwable failure;
+		private long finishedAt;
+
+		private Task(final OffThreadExecutor executor, final String name, final Supplier<T> computation, final Consumer<? super T> completion) {
+			this.executor = executor;
+			this.name = name;
+			this.computation = computation;
+			this.completion = completion;
+		}
+
+		/**
+		 * Cancels the task, interrupting the computation if it already started. Has no effect once the completion ran
+		 *
+		 * @return If the task was cancelled by this call
+		 */
+		public boolean cancel() {
+			if (!done.compareAndSet(false, true)) return false;
+			executor.cancelled.incrementAndGet();
+			executor.inFlight.remove(this);
+			final var future = this.future;
+			if (future != null) future.cancel(true);
+			return true;
+		}
+
+		/**
+		 * @return If the task was cancelled or its completion ran
+		 */
+		public boolean isDone() {
+			return done.get();
+		}
+
+		private void run() {
+			if (done.get()) return;
+			final long start = System.nanoTime();
+			try {
+				result = computation.get();
+			} catch (final Throwable throwable) {
+				failure = throwable;
+			}
+			finishedAt = System.nanoTime();
+			executor.computeTimes.record(finishedAt - start);
+			if (!executor.inFlight.remove(this)) return;
+			// Offering publishes the result and failure to the server thread
+			executor.completed.offer(this);
+			executor.completedDepth.incrementAndGet();
+		}
+
+		private void complete() {
+			// Cancelled after being queued, or claimed here so a later cancel is a no-op
+			if (!done.compareAndSet(false, true)) return;
+			if (failure != null) {
+				executor.failed.incrementAndGet();
+				TASK_FAILED.log(name, failure);
+				return;
+			}
+			try {
+				completion.accept(result);
+				executor.applied++;
+			} catch (final RuntimeException exception) {
+				executor.failed.incrementAndGet();
+				COMPLETION_FAILED.log(name, exception);
+			}
+		}
+	}
+}
@@ -0,0 +1,22 @@
+package com.example.examplemod.common.scheduler;
+
+import net.minecraft.server.level.ServerLevel;
+
+import java.util.function.Consumer;
+
+/**
+ * A periodic piece of work run by a {@link LevelTickScheduler}
+ *
+ * @param id          Dense index of the task, assigned on registration
+ * @param name        Unique name of the task, also used to stagger it against other tasks with the same period
+ * @param period      How often (in ticks) the task becomes due
+ * @param budgetNanos The expected cost of a single run, the scheduler won't start the task unless this fits in the remaining tick budget
+ * @param offset      The tick offset inside the period the task becomes due on
+ * @param action      The work itself
+ */
+public record ScheduledTask(int id, String name, int period, long budgetNanos, int offset, Consumer<ServerLevel> action) {
+
+	boolean isDue(final long gameTime) {
+		return (gameTime + offset) % period == 0;
+	}
+}
\ No newline at end of file
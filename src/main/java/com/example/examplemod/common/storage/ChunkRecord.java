@@ -0,0 +1,63 @@
+package com.example.examplemod.common.storage;
+
+/**
+ * View of the fixed size record a {@link RegionStore} keeps for a chunk. Fields are laid out by whoever uses the store,
+ * offsets are relative to the start of the record and must fit inside {@link #BYTES}. A new region starts out zeroed.
+ * <p>
+ * The view is only valid while the chunk is loaded and must only be used on the server thread.
+ */
+public final class ChunkRecord {
+
+	public static final int BYTES = 64;
+
+	private final RegionFile region;
+	private final int base;
+
+	ChunkRecord(final RegionFile region, final int base) {
+		this.region = region;
+		this.base = base;
+	}
+
+	public byte getByte(final int offset) {
+		return region.buffer().get(position(offset, Byte.BYTES));
+	}
+
+	public void putByte(final int offset, final byte value) {
+		region.buffer().put(position(offset, Byte.BYTES), value);
+		region.markDirty(base + offset, Byte.BYTES);
+	}
+
+	public int getInt(final int offset) {
+		return region.buffer().getInt(position(offset, Integer.BYTES));
+	}
+
+	public void putInt(final int offset, final int value) {
+		region.buffer().putInt(position(offset, Integer.BYTES), value);
+		region.markDirty(base + offset, Integer.BYTES);
+	}
+
+	public long getLong(final int offset) {
+		return region.buffer().getLong(position(offset, Long.BYTES));
+	}
+
+	public void putLong(final int offset, final long value) {
+		region.buffer().putLong(position(offset, Long.BYTES), value);
+		region.markDirty(base + offset, Long.BYTES);
+	}
+
+	public float getFloat(final int offset) {
+		return region.buffer().getFloat(position(offset, Float.BYTES));
+	}
+
+	public void putFloat(final int offset, final float value) {
+		region.buffer().putFloat(position(offset, Float.BYTES), value);
+		region.markDirty(base + offset, Float.BYTES);
+	}
+
+	private int position(final int offset, final int size) {
+		if (offset < 0 || offset + size > BYTES) {
+			throw new IndexOutOfBoundsException("Field at " + offset + " with size " + size + " doesn't fit a " + BYTES + " byte record");
+		}
+		return base + offset;
+	}
+}
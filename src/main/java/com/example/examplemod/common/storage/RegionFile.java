@@ -0,0 +1,152 @@
+package com.example.examplemod.common.storage;
+
+import com.example.examplemod.ExampleMod;
+
+import net.minecraft.world.level.ChunkPos;
+
+import java.io.IOException;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.BitSet;
+
+/**
+ * A memory mapped file holding the records of a 32x32 chunk region. The file has a fixed size: a header followed by one
+ * {@link ChunkRecord#BYTES} record per chunk. Writes go straight to the mapping and mark the pages they touch dirty, saving
+ * only forces those pages to disk.
+ */
+final class RegionFile {
+
+	static final int REGION_SHIFT = 5;
+	static final int CHUNKS = 1 << (REGION_SHIFT * 2);
+	static final int PAGE_BYTES = 4096;
+	static final int FILE_BYTES = ChunkRecord.BYTES + CHUNKS * ChunkRecord.BYTES;
+
+	private static final int MAGIC = 0x454D5247; // EMRG
+	private static final int VERSION = 1;
+	private static final int PAGES = (FILE_BYTES + PAGE_BYTES - 1) / PAGE_BYTES;
+
+	private final Path path;
+	private final MappedByteBuffer buffer;
+	private final BitSet dirtyPages = new BitSet(PAGES);
+	private final BitSet loadedChunks = new BitSet(CHUNKS);
+
+	private RegionFile(final Path path, final MappedByteBuffer buffer) {
+		this.path = path;
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Maps the region file, creating it if needed. A file with a foreign header is moved aside and replaced
+	 */
+	static RegionFile open(final Path path) throws IOException {
+		Files.createDirectories(path.getParent());
+		if (Files.exists(path) && !hasValidHeader(path)) {
+			final var backup = path.resolveSibling(path.getFileName() + ".bak");
+			ExampleMod.LOG.warn("Region file {} is corrupt or from an incompatible version, moving it to {}", path, backup);
+			Files.move(path, backup, StandardCopyOption.REPLACE_EXISTING);
+		}
+
+		// The mapping stays valid after the channel is closed, there's no need to hold on to a file handle per region
+		try (final var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			final boolean created = channel.size() == 0;
+			final var region = new RegionFile(path, channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_BYTES));
+			if (created) {
+				region.buffer.putInt(0, MAGIC);
+				region.buffer.putInt(4, VERSION);
+				region.buffer.putInt(8, ChunkRecord.BYTES);
+				region.dirtyPages.set(0);
+			}
+			return region;
+		}
+	}
+
+	private static boolean hasValidHeader(final Path path) throws IOException {
+		try (final var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() != FILE_BYTES) return false;
+			// Read rather than mapped, a mapping would keep the file from being moved aside on Windows until it's collected
+			final var header = ByteBuffer.allocate(12);
+			while (header.hasRemaining()) {
+				if (channel.read(header, header.position()) < 0) return false;
+			}
+			return header.getInt(0) == MAGIC && header.getInt(4) == VERSION && header.getInt(8) == ChunkRecord.BYTES;
+		}
+	}
+
+	static long key(final ChunkPos pos) {
+		return ChunkPos.asLong(pos.x >> REGION_SHIFT, pos.z >> REGION_SHIFT);
+	}
+
+	static String fileName(final long key) {
+		return "r." + ChunkPos.getX(key) + "." + ChunkPos.getZ(key) + ".emr";
+	}
+
+	private static int index(final ChunkPos pos) {
+		return pos.getRegionLocalZ() << REGION_SHIFT | pos.getRegionLocalX();
+	}
+
+	/**
+	 * @return If this is the first time the chunk was marked loaded
+	 */
+	boolean markLoaded(final ChunkPos pos) {
+		final int index = index(pos);
+		if (loadedChunks.get(index)) return false;
+		loadedChunks.set(index);
+		return true;
+	}
+
+	/**
+	 * @return If no chunks of the region are loaded anymore
+	 */
+	boolean markUnloaded(final ChunkPos pos) {
+		loadedChunks.clear(index(pos));
+		return loadedChunks.isEmpty();
+	}
+
+	boolean isLoaded(final ChunkPos pos) {
+		return loadedChunks.get(index(pos));
+	}
+
+	int loadedCount() {
+		return loadedChunks.cardinality();
+	}
+
+	ChunkRecord record(final ChunkPos pos) {
+		return new ChunkRecord(this, ChunkRecord.BYTES + index(pos) * ChunkRecord.BYTES);
+	}
+
+	MappedByteBuffer buffer() {
+		return buffer;
+	}
+
+	void markDirty(final int offset, final int length) {
+		dirtyPages.set(offset / PAGE_BYTES, (offset + length - 1) / PAGE_BYTES + 1);
+	}
+
+	int dirtyPageCount() {
+		return dirtyPages.cardinality();
+	}
+
+	/**
+	 * Forces every dirty page to disk
+	 *
+	 * @return The number of pages written
+	 */
+	int save() {
+		int written = 0;
+		for (int page = dirtyPages.nextSetBit(0); page >= 0; page = dirtyPages.nextSetBit(page + 1)) {
+			// Neighbouring dirty pages are forced together
+			final int end = dirtyPages.nextClearBit(page);
+			final int offset = page * PAGE_BYTES;
+			buffer.force(offset, Math.min(end * PAGE_BYTES, FILE_BYTES) - offset);
+			written += end - page;
+			page = end - 1;
+		}
+		dirtyPages.clear();
+		return written;
+	}
+
+	Path path() {
+		return path;
+	}
+}
@@ -0,0 +1,170 @@
+package com.example.examplemod.common.storage;
+
+import com.example.examplemod.ExampleMod;
+import com.example.examplemod.profiling.LatencyHistogram;
+import it.unimi.dsi.fastutil.longs.*;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.dimension.DimensionType;
+import net.minecraft.world.level.storage.LevelResource;
+
+import java.io.*;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Per level store of fixed size chunk records, an alternative to NBT saved data for per chunk state. Records live in memory
+ * mapped region files under the dimension's {@value #DIRECTORY} directory instead of on the heap, and saving only writes the
+ * pages which changed since the last save so the cost of an autosave follows how much changed rather than how big the
+ * world is.
+ * <p>
+ * Region files are mapped when the first of their chunks loads and released once the last one unloads. Only touched from
+ * the server thread.
+ */
+public final class RegionStore {
+
+	public static final String DIRECTORY = "data/examplemod_regions";
+
+	private static final Map<ServerLevel, RegionStore> STORES = new IdentityHashMap<>();
+
+	private final Path directory;
+	private final Long2ObjectMap<RegionFile> regions = new Long2ObjectOpenHashMap<>();
+	private final LatencyHistogram saveTimes = new LatencyHistogram();
+	private long lastSaveNanos;
+	private int lastSavePages;
+	private long pagesWritten;
+
+	private RegionStore(final Path directory) {
+		this.directory = directory;
+	}
+
+	public static RegionStore get(final ServerLevel level) {
+		return STORES.computeIfAbsent(level, key -> new RegionStore(
+				DimensionType.getStorageFolder(level.dimension(), level.getServer().getWorldPath(LevelResource.ROOT)).resolve(DIRECTORY)));
+	}
+
+	/**
+	 * Saves and releases the level's store, called when the level unloads
+	 */
+	public static void remove(final ServerLevel level) {
+		final var store = STORES.remove(level);
+		if (store == null) return;
+		store.save();
+		store.regions.clear();
+	}
+
+	/**
+	 * Visits the store of every loaded level
+	 */
+	public static void forEach(final BiConsumer<ServerLevel, RegionStore> consumer) {
+		STORES.forEach(consumer);
+	}
+
+	/**
+	 * @return The record of a loaded chunk, or null if the chunk isn't loaded
+	 */
+	@Nullable
+	public ChunkRecord get(final ChunkPos pos) {
+		final var region = regions.get(RegionFile.key(pos));
+		return region != null && region.isLoaded(pos) ? region.record(pos) : null;
+	}
+
+	public void onChunkLoad(final ChunkPos pos) {
+		final long key = RegionFile.key(pos);
+		var region = regions.get(key);
+		if (region == null) {
+			final var path = directory.resolve(RegionFile.fileName(key));
+			try {
+				region = RegionFile.open(path);
+			} catch (final IOException exception) {
+				ExampleMod.LOG.error("Failed to open region file {}, records for chunks in it won't be available", path, exception);
+				return;
+			}
+			regions.put(key, region);
+		}
+		region.markLoaded(pos);
+	}
+
+	public void onChunkUnload(final ChunkPos pos) {
+		final long key = RegionFile.key(pos);
+		final var region = regions.get(key);
+		if (region == null || !region.markUnloaded(pos)) return;
+		// Last chunk of the region, the mapping is released once the buffer is collected
+		pagesWritten += saveRegion(region);
+		regions.remove(key);
+	}
+
+	/**
+	 * Forces all dirty pages to disk, called whenever the level saves
+	 */
+	public void save() {
+		final long start = System.nanoTime();
+		int pages = 0;
+		for (final var region : regions.values()) {
+			pages += saveRegion(region);
+		}
+		lastSaveNanos = System.nanoTime() - start;
+		lastSavePages = pages;
+		pagesWritten += pages;
+		saveTimes.record(lastSaveNanos);
+	}
+
+	private static int saveRegion(final RegionFile region) {
+		try {
+			return region.save();
+		} catch (final UncheckedIOException exception) {
+			ExampleMod.LOG.error("Failed to save region file {}", region.path(), exception);
+			return 0;
+		}
+	}
+
+	/**
+	 * @return The number of region files currently mapped
+	 */
+	public int regionCount() {
+		return regions.size();
+	}
+
+	/**
+	 * @return The number of loaded chunks with a record available
+	 */
+	public int loadedChunkCount() {
+		return regions.values().stream().mapToInt(RegionFile::loadedCount).sum();
+	}
+
+	/**
+	 * @return The number of pages changed since the last save
+	 */
+	public int dirtyPageCount() {
+		return regions.values().stream().mapToInt(RegionFile::dirtyPageCount).sum();
+	}
+
+	/**
+	 * @return The bytes of off heap memory mapped by this store, how much of it is actually resident is up to the OS
+	 */
+	public long mappedBytes() {
+		return (long) regions.size() * RegionFile.FILE_BYTES;
+	}
+
+	public long lastSaveNanos() {
+		return lastSaveNanos;
+	}
+
+	public int lastSavePages() {
+		return lastSavePages;
+	}
+
+	/**
+	 * @return The number of pages written since the level loaded, including the ones written when regions were released
+	 */
+	public long pagesWritten() {
+		return pagesWritten;
+	}
+
+	public LatencyHistogram.Stats saveStats() {
+		return saveTimes.stats();
+	}
+}
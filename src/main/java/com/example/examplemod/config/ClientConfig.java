@@ -6,8 +6,19 @@ import net.neoforged.neoforge.common.ModConfigSpec;
  * Client configuration.
  * Configs that only the client cares about like things related to rendering should in here
  */
-public final class ClientConfig extends SpecHoldingConfig {
+public final class ClientConfig extends SpecHoldingConfig<ClientConfig.Snapshot> {
+
+	public final ModConfigSpec.IntValue tooltipCacheSize;
 
 	public ClientConfig(final ModConfigSpec.Builder builder) {
+		tooltipCacheSize = builder.comment("How many tooltip lines each tooltip cache keeps before evicting the least recently used")
+				.defineInRange("tooltipCacheSize", 512, 16, 65_536);
+	}
+
+	@Override
+	protected Snapshot createSnapshot() {
+		return new Snapshot(read(tooltipCacheSize));
 	}
+
+	public record Snapshot(int tooltipCacheSize) {}
 }
\ No newline at end of file
@@ -6,8 +6,15 @@ import net.neoforged.neoforge.common.ModConfigSpec;
  * Common configuration.
  * Config independent to both sides (Server and Client) IE not usually useful
  */
-public final class CommonConfig extends SpecHoldingConfig {
+public final class CommonConfig extends SpecHoldingConfig<CommonConfig.Snapshot> {
 
 	public CommonConfig(final ModConfigSpec.Builder builder) {
 	}
+
+	@Override
+	protected Snapshot createSnapshot() {
+		return new Snapshot();
+	}
+
+	public record Snapshot() {}
 }
\ No newline at end of file
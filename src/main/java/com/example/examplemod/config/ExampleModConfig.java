@@ -1,7 +1,11 @@
 package com.example.examplemod.config;
 
+import com.example.examplemod.profiling.HandlerProfiler;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.fml.event.config.ModConfigEvent;
 import net.neoforged.neoforge.common.ModConfigSpec;
 
+import java.util.List;
 import java.util.function.Function;
 
 public final class ExampleModConfig {
@@ -11,9 +15,26 @@ public final class ExampleModConfig {
 	public static final ServerConfig SERVER = register(ServerConfig::new);
 	public static final StartupConfig STARTUP = register(StartupConfig::new);
 
-	private static <C extends SpecHoldingConfig> C register(final Function<ModConfigSpec.Builder, C> factory) {
+	private static final List<SpecHoldingConfig<?>> CONFIGS = List.of(COMMON, CLIENT, SERVER, STARTUP);
+
+	public static void init(final IEventBus modBus) {
+		HandlerProfiler.addListener(modBus, ModConfigEvent.Loading.class, "ExampleModConfig.onConfigLoading",
+				ExampleModConfig::onConfigChanged);
+		HandlerProfiler.addListener(modBus, ModConfigEvent.Reloading.class, "ExampleModConfig.onConfigReloading",
+				ExampleModConfig::onConfigChanged);
+	}
+
+	private static void onConfigChanged(final ModConfigEvent event) {
+		for (final var config : CONFIGS) {
+			if (event.getConfig().getSpec() == config.spec()) {
+				config.updateSnapshot();
+			}
+		}
+	}
+
+	private static <C extends SpecHoldingConfig<?>> C register(final Function<ModConfigSpec.Builder, C> factory) {
 		final var pair = new ModConfigSpec.Builder().configure(factory);
 		pair.getLeft().updateSpec(pair.getRight());
 		return pair.getLeft();
 	}
-}
\ No newline at end of file
+}
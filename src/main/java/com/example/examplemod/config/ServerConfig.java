@@ -7,8 +7,43 @@ import net.neoforged.neoforge.common.ModConfigSpec;
  * Configs that both sides care about like how long until a light source should burn out or
  * the capacity of some sort of container
  */
-public final class ServerConfig extends SpecHoldingConfig {
+public final class ServerConfig extends SpecHoldingConfig<ServerConfig.Snapshot> {
+
+	public final ModConfigSpec.IntValue tickSchedulerBudgetMicros;
+
+	public final ModConfigSpec.DoubleValue serverboundPayloadsPerSecond;
+	public final ModConfigSpec.IntValue serverboundPayloadBurst;
+	public final ModConfigSpec.IntValue maxQueuedPayloadsPerPlayer;
 
 	public ServerConfig(final ModConfigSpec.Builder builder) {
+		builder.push("scheduler");
+		tickSchedulerBudgetMicros = builder.comment("""
+						How much time (in microseconds) scheduled tasks may use per level each tick.
+						Work that doesn't fit is carried over into the next tick""")
+				.defineInRange("tickSchedulerBudgetMicros", 2_000, 0, 50_000);
+		builder.pop();
+
+		builder.push("network");
+		serverboundPayloadsPerSecond = builder.comment("How many payloads per second a single player may send before being throttled")
+				.defineInRange("serverboundPayloadsPerSecond", 20D, 0.1, 1_000);
+		serverboundPayloadBurst = builder.comment("How many payloads a single player may send in a burst before the rate limit applies")
+				.defineInRange("serverboundPayloadBurst", 40, 1, 10_000);
+		maxQueuedPayloadsPerPlayer = builder.comment("""
+						How many payloads from a single player may be waiting for the server thread at once.
+						Payloads over this limit are dropped""")
+				.defineInRange("maxQueuedPayloadsPerPlayer", 16, 1, 1_000);
+		builder.pop();
 	}
+
+	@Override
+	protected Snapshot createSnapshot() {
+		return new Snapshot(read(tickSchedulerBudgetMicros) * 1_000L, read(serverboundPayloadsPerSecond), read(serverboundPayloadBurst),
+				read(maxQueuedPayloadsPerPlayer));
+	}
+
+	/**
+	 * @param tickSchedulerBudgetNanos Already converted to nanoseconds
+	 */
+	public record Snapshot(long tickSchedulerBudgetNanos, double serverboundPayloadsPerSecond, int serverboundPayloadBurst,
+	                       int maxQueuedPayloadsPerPlayer) {}
 }
\ No newline at end of file
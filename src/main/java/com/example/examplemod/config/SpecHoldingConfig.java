@@ -5,15 +5,47 @@ import net.neoforged.neoforge.common.ModConfigSpec;
 import org.jetbrains.annotations.Nullable;
 import java.util.Objects;
 
-public sealed class SpecHoldingConfig permits ClientConfig, CommonConfig, ServerConfig, StartupConfig {
+/**
+ * Base for our config classes. Besides the spec each config publishes an immutable snapshot of its values, hot code should
+ * read from the snapshot instead of going through {@link ModConfigSpec.ConfigValue#get()} which does a config lookup and
+ * boxes on every call.
+ *
+ * @param <S> The snapshot type
+ */
+public abstract sealed class SpecHoldingConfig<S> permits ClientConfig, CommonConfig, ServerConfig, StartupConfig {
 
 	private @Nullable ModConfigSpec spec;
+	private volatile @Nullable S snapshot;
 
 	final void updateSpec(final ModConfigSpec spec) {
 		this.spec = spec;
+		updateSnapshot();
+	}
+
+	/**
+	 * Rebuilds the snapshot from the current config values, called whenever the config is loaded or reloaded
+	 */
+	final void updateSnapshot() {
+		this.snapshot = createSnapshot();
 	}
 
 	public final ModConfigSpec spec() {
 		return Objects.requireNonNull(this.spec);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * @return The values of the config as of the last load, or the defaults if it hasn't been loaded yet
+	 */
+	public final S snapshot() {
+		return Objects.requireNonNull(this.snapshot);
+	}
+
+	protected abstract S createSnapshot();
+
+	/**
+	 * @return The value or its default if the config isn't loaded
+	 */
+	protected final <T> T read(final ModConfigSpec.ConfigValue<T> value) {
+		return spec().isLoaded() ? value.get() : value.getDefault();
+	}
+}
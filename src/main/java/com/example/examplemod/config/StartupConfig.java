@@ -2,8 +2,15 @@ package com.example.examplemod.config;
 
 import net.neoforged.neoforge.common.ModConfigSpec;
 
-public final class StartupConfig extends SpecHoldingConfig {
+public final class StartupConfig extends SpecHoldingConfig<StartupConfig.Snapshot> {
 
 	public StartupConfig(final ModConfigSpec.Builder builder) {
 	}
+
+	@Override
+	protected Snapshot createSnapshot() {
+		return new Snapshot();
+	}
+
+	public record Snapshot() {}
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.example.examplemod.mixin;
+
+import com.example.examplemod.profiling.ReloadProfiler;
+import com.google.gson.*;
+import org.spongepowered.asm.mixin.*;
+import org.spongepowered.asm.mixin.injection.*;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import net.minecraft.resources.*;
+import net.minecraft.server.packs.resources.*;
+import net.minecraft.util.GsonHelper;
+import net.minecraft.util.profiling.ProfilerFiller;
+
+import java.io.Reader;
+import java.util.Map;
+
+/**
+ * Tells the {@link ReloadProfiler} which directory a listener loads, how many files it found there and how long each of them
+ * took to read and parse
+ */
+@Mixin(SimpleJsonResourceReloadListener.class)
+public abstract class SimpleJsonResourceReloadListenerMixin implements ReloadProfiler.JsonDirectory {
+
+	@Shadow
+	@Final
+	private String directory;
+
+	@Override
+	public String examplemod$directory() {
+		return directory;
+	}
+
+	@Inject(method = "prepare(Lnet/minecraft/server/packs/resources/ResourceManager;Lnet/minecraft/util/profiling/ProfilerFiller;)Ljava/util/Map;",
+			at = @At("RETURN"))
+	private void examplemod$countFiles(final ResourceManager manager, final ProfilerFiller profiler,
+			final CallbackInfoReturnable<Map<ResourceLocation, JsonElement>> callback) {
+		ReloadProfiler.onPrepared(directory, callback.getReturnValue());
+	}
+
+	/**
+	 * The id of a file is resolved right before the file is opened, which starts its timer
+	 */
+	@Redirect(method = "scanDirectory", at = @At(value = "INVOKE",
+			target = "Lnet/minecraft/resources/FileToIdConverter;fileToId(Lnet/minecraft/resources/ResourceLocation;)Lnet/minecraft/resources/ResourceLocation;"))
+	private static ResourceLocation examplemod$startFile(final FileToIdConverter converter, final ResourceLocation file) {
+		return ReloadProfiler.onReading(converter.fileToId(file));
+	}
+
+	/**
+	 * The reader is lazy so parsing includes reading the file
+	 */
+	@Redirect(method = "scanDirectory", at = @At(value = "INVOKE",
+			target = "Lnet/minecraft/util/GsonHelper;fromJson(Lcom/google/gson/Gson;Ljava/io/Reader;Ljava/lang/Class;)Ljava/lang/Object;"))
+	private static <T> T examplemod$parseFile(final Gson gson, final Reader reader, final Class<T> type, final ResourceManager manager,
+			final String directory, final Gson directoryGson, final Map<ResourceLocation, JsonElement> output) {
+		final T json = GsonHelper.fromJson(gson, reader, type);
+		ReloadProfiler.onParsed(directory);
+		return json;
+	}
+}
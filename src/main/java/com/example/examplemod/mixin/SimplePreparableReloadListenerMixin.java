@@ -0,0 +1,27 @@
+package com.example.examplemod.mixin;
+
+import com.example.examplemod.profiling.ReloadProfiler;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.*;
+
+import net.minecraft.server.packs.resources.*;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Hands the executors to the {@link ReloadProfiler}, the only task submitted to the first is the listener's prepare and
+ * the only one submitted to the second its apply
+ */
+@Mixin(SimplePreparableReloadListener.class)
+public abstract class SimplePreparableReloadListenerMixin implements PreparableReloadListener {
+
+	@ModifyVariable(method = "reload", at = @At("HEAD"), argsOnly = true, ordinal = 0)
+	private Executor examplemod$profilePrepare(final Executor backgroundExecutor) {
+		return ReloadProfiler.prepareExecutor(this, backgroundExecutor);
+	}
+
+	@ModifyVariable(method = "reload", at = @At("HEAD"), argsOnly = true, ordinal = 1)
+	private Executor examplemod$profileApply(final Executor gameExecutor) {
+		return ReloadProfiler.applyExecutor(this, gameExecutor);
+	}
+}
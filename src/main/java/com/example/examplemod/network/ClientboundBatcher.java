@@ -0,0 +1,95 @@
+package com.example.examplemod.network;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.neoforged.neoforge.network.PacketDistributor;
+
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.Map;
+
+/**
+ * Coalesces the {@link ExampleClientboundPacket}s sent to a player during a tick into a single payload which is flushed
+ * at the end of the tick. Duplicate entity ids are collapsed and the order they were queued in is not kept.
+ * <p>
+ * Only touched from the server thread.
+ */
+public final class ClientboundBatcher {
+
+	/**
+	 * Queues larger than this are trimmed after flushing so a single burst doesn't pin memory
+	 */
+	private static final int RETAINED_CAPACITY = 64;
+
+	private static final Map<ServerPlayer, IntArrayList> QUEUED = new Reference2ObjectOpenHashMap<>();
+
+	private static long queuedPayloads;
+	private static long sentPayloads;
+
+	/**
+	 * Queues an {@link ExampleClientboundPacket} for the given entity to be sent to the player at the end of the tick
+	 */
+	public static void queue(final ServerPlayer player, final int entityId) {
+		QUEUED.computeIfAbsent(player, key -> new IntArrayList()).add(entityId);
+		queuedPayloads++;
+	}
+
+	/**
+	 * Sends everything queued this tick, one payload per player
+	 */
+	public static void flush() {
+		for (final var entry : QUEUED.entrySet()) {
+			final var entityIds = entry.getValue();
+			if (entityIds.isEmpty()) continue;
+
+			final int size = sortDistinct(entityIds);
+			if (size == 1) {
+				PacketDistributor.sendToPlayer(entry.getKey(), new ExampleClientboundPacket(entityIds.getInt(0)));
+			} else {
+				PacketDistributor.sendToPlayer(entry.getKey(), new ExampleClientboundBundlePacket(entityIds.toIntArray()));
+			}
+			sentPayloads++;
+
+			entityIds.clear();
+			if (entityIds.elements().length > RETAINED_CAPACITY) {
+				entityIds.trim(RETAINED_CAPACITY);
+			}
+		}
+	}
+
+	public static void remove(final ServerPlayer player) {
+		QUEUED.remove(player);
+	}
+
+	/**
+	 * @return How many clientbound payloads have been queued
+	 */
+	public static long queuedPayloads() {
+		return queuedPayloads;
+	}
+
+	/**
+	 * @return How many payloads have actually been sent after batching
+	 */
+	public static long sentPayloads() {
+		return sentPayloads;
+	}
+
+	/**
+	 * Sorts the list and moves the distinct values to the front
+	 *
+	 * @return The number of distinct values
+	 */
+	private static int sortDistinct(final IntArrayList values) {
+		values.unstableSort(null);
+		final int[] elements = values.elements();
+		int size = 1;
+		for (int i = 1; i < values.size(); i++) {
+			if (elements[i] != elements[size - 1]) {
+				elements[size++] = elements[i];
+			}
+		}
+		values.size(size);
+		return size;
+	}
+}
\ No newline at end of file
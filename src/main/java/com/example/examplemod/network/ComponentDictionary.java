@@ -0,0 +1,154 @@
+package com.example.examplemod.network;
+
+import io.netty.buffer.*;
+import it.unimi.dsi.fastutil.ints.*;
+import it.unimi.dsi.fastutil.objects.*;
+import net.neoforged.neoforge.network.connection.ConnectionType;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.chat.*;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Connection scoped table of components sent from the client. The first time the client sends a component it's sent in
+ * full along with the id it was assigned, after that only the id goes over the wire. The table is filled in by the client
+ * as it sends components and cleared on both sides when the connection closes. Once the table is full (or for components too
+ * large to be worth keeping) components are sent inline without an id.
+ * <p>
+ * The client's table is {@link #CLIENT}, simulated clients keep their own {@link ClientTable}.
+ */
+public final class ComponentDictionary {
+
+	/**
+	 * Ids are assigned from {@code 1}, {@code 0} means the component was sent inline
+	 */
+	public static final int INLINE = 0;
+	public static final int MAX_ENTRIES = 256;
+	/**
+	 * Components larger than this are always sent inline so a client can't pin much memory on the server
+	 */
+	public static final int MAX_ENTRY_BYTES = 1024;
+
+	/**
+	 * The table of this client's connection to the server
+	 */
+	public static final ClientTable CLIENT = new ClientTable();
+
+	private static final Map<UUID, ServerTable> SERVER_TABLES = new ConcurrentHashMap<>();
+
+	/**
+	 * Looks up the id of a component in {@link #CLIENT}
+	 *
+	 * @return The id of the component or {@link #INLINE} if it hasn't been assigned one
+	 */
+	static int clientId(final Component component) {
+		return CLIENT.id(component);
+	}
+
+	/**
+	 * Assigns a new id to a component in {@link #CLIENT}
+	 *
+	 * @return The new id or {@link #INLINE} if the table is full
+	 */
+	static int assignClientId(final Component component) {
+		return CLIENT.assign(component);
+	}
+
+	/**
+	 * Clears the client side table, must be called whenever the client connection closes
+	 */
+	public static void resetClient() {
+		CLIENT.reset();
+	}
+
+	/**
+	 * Records the encoded component for the given id, sent by the player the first time they used it
+	 */
+	static void define(final UUID player, final int id, final byte[] encodedComponent) {
+		SERVER_TABLES.computeIfAbsent(player, uuid -> new ServerTable()).define(id, encodedComponent);
+	}
+
+	/**
+	 * Resolves a previously defined id, decoding the component the first time it's used
+	 *
+	 * @return The component or null if the player never defined the id
+	 */
+	@Nullable
+	static Component resolve(final UUID player, final int id, final RegistryAccess registryAccess, final ConnectionType connectionType) {
+		final var table = SERVER_TABLES.get(player);
+		if (table == null) return null;
+		return table.resolve(id, registryAccess, connectionType);
+	}
+
+	public static void remove(final ServerPlayer player) {
+		remove(player.getUUID());
+	}
+
+	static void remove(final UUID player) {
+		SERVER_TABLES.remove(player);
+	}
+
+	static Component decode(final byte[] encodedComponent, final RegistryAccess registryAccess, final ConnectionType connectionType) {
+		return decode(Unpooled.wrappedBuffer(encodedComponent), registryAccess, connectionType);
+	}
+
+	static Component decode(final ByteBuf encodedComponent, final RegistryAccess registryAccess, final ConnectionType connectionType) {
+		return ComponentSerialization.STREAM_CODEC.decode(new RegistryFriendlyByteBuf(encodedComponent, registryAccess, connectionType));
+	}
+
+	/**
+	 * The sending (client) side of a connection's dictionary
+	 */
+	public static final class ClientTable {
+
+		private final Object2IntMap<Component> ids = new Object2IntOpenHashMap<>();
+
+		/**
+		 * @return The id of the component or {@link #INLINE} if it hasn't been assigned one
+		 */
+		synchronized int id(final Component component) {
+			return ids.getInt(component);
+		}
+
+		/**
+		 * @return The new id or {@link #INLINE} if the table is full
+		 */
+		synchronized int assign(final Component component) {
+			if (ids.size() >= MAX_ENTRIES) return INLINE;
+			final int id = ids.size() + 1;
+			ids.put(component, id);
+			return id;
+		}
+
+		public synchronized void reset() {
+			ids.clear();
+		}
+	}
+
+	private static final class ServerTable {
+
+		private final Int2ObjectMap<byte[]> encoded = new Int2ObjectOpenHashMap<>();
+		private final Int2ObjectMap<Component> decoded = new Int2ObjectOpenHashMap<>();
+
+		private synchronized void define(final int id, final byte[] encodedComponent) {
+			encoded.put(id, encodedComponent);
+			decoded.remove(id);
+		}
+
+		@Nullable
+		private synchronized Component resolve(final int id, final RegistryAccess registryAccess, final ConnectionType connectionType) {
+			final var component = decoded.get(id);
+			if (component != null) return component;
+			final var encodedComponent = encoded.get(id);
+			if (encodedComponent == null) return null;
+			final var decodedComponent = decode(encodedComponent, registryAccess, connectionType);
+			decoded.put(id, decodedComponent);
+			return decodedComponent;
+		}
+	}
+}
\ No newline at end of file
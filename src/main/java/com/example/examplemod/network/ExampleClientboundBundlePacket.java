@@ -0,0 +1,73 @@
+package com.example.examplemod.network;
+
+import com.example.examplemod.ExampleMod;
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.DecoderException;
+import net.dries007.tfc.client.ClientHelpers;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.network.VarInt;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+
+import java.util.Arrays;
+
+/**
+ * Every {@link ExampleClientboundPacket} queued for a player during a tick, sent as one payload by {@link ClientboundBatcher}.
+ * The entity ids are sorted and distinct so each one is written as the (usually single byte) difference from the previous id
+ *
+ * @param entityIds Sorted, distinct entity ids
+ */
+public record ExampleClientboundBundlePacket(int[] entityIds) implements CustomPacketPayload {
+
+	public static final Type<ExampleClientboundBundlePacket> TYPE = new Type<>(ExampleMod.location("example_client_bundle_packet"));
+
+	public static final StreamCodec<ByteBuf, ExampleClientboundBundlePacket> CODEC = StreamCodec.of(ExampleClientboundBundlePacket::encode,
+			ExampleClientboundBundlePacket::decode);
+
+	private static void encode(final ByteBuf buffer, final ExampleClientboundBundlePacket packet) {
+		VarInt.write(buffer, packet.entityIds.length);
+		int previous = 0;
+		for (final int entityId : packet.entityIds) {
+			VarInt.write(buffer, entityId - previous);
+			previous = entityId;
+		}
+	}
+
+	private static ExampleClientboundBundlePacket decode(final ByteBuf buffer) {
+		final int count = VarInt.read(buffer);
+		// Every id takes at least a byte, don't let a bad count allocate a huge array
+		if (count < 0 || count > buffer.readableBytes()) {
+			throw new DecoderException("Bundle claims " + count + " entity ids but only " + buffer.readableBytes() + " bytes remain");
+		}
+		final int[] entityIds = new int[count];
+		int previous = 0;
+		for (int i = 0; i < count; i++) {
+			previous += VarInt.read(buffer);
+			entityIds[i] = previous;
+		}
+		return new ExampleClientboundBundlePacket(entityIds);
+	}
+
+	/**
+	 * Runs on the network thread. The only entity we look for is our own player, which is found by comparing against its id
+	 * instead of going through the level, so nothing here touches the world
+	 *
+	 * @return Work for the client thread or null if there's nothing left to do
+	 */
+	@Nullable
+	Runnable handle() {
+		final var player = ClientHelpers.getPlayer();
+		if (player == null) return null;
+		// The ids are sorted
+		if (Arrays.binarySearch(entityIds, player.getId()) >= 0) {
+			ExampleClientboundPacket.OWN_PLAYER.log();
+		}
+		return null;
+	}
+
+	@Override
+	public Type<? extends CustomPacketPayload> type() {
+		return TYPE;
+	}
+}
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.example.examplemod.network;
 
 import com.example.examplemod.ExampleMod;
+import com.example.examplemod.ExampleModLog;
 import io.netty.buffer.ByteBuf;
 import net.dries007.tfc.client.ClientHelpers;
 
@@ -14,13 +15,15 @@ public record ExampleClientboundPacket(int entityId) implements CustomPacketPayl
 	public static final StreamCodec<ByteBuf, ExampleClientboundPacket> CODEC = StreamCodec.composite(ByteBufCodecs.VAR_INT,
 			ExampleClientboundPacket::entityId, ExampleClientboundPacket::new);
 
+	static final ExampleModLog.CallSite OWN_PLAYER = ExampleModLog.debug("We received a packet for our own player entity!");
+
 	void handle() {
 		// Client code cannot be directly used in this sort of handle method
 		final var level = ClientHelpers.getLevel();
 		if (level == null) return;
 		final var entity = level.getEntity(entityId);
 		if (entity == ClientHelpers.getPlayer()) {
-			ExampleMod.LOG.debug("We received a packet for our own player entity!");
+			OWN_PLAYER.log();
 		}
 	}
 
@@ -1,32 +1,194 @@
 package com.example.examplemod.network;
 
 import com.example.examplemod.ExampleMod;
+import com.example.examplemod.profiling.*;
+import com.example.examplemod.profiling.HandlerProfiler.Probe;
+import io.netty.buffer.ByteBuf;
 import net.neoforged.fml.ModList;
 import net.neoforged.neoforge.network.event.RegisterPayloadHandlersEvent;
 import net.neoforged.neoforge.network.handling.IPayloadHandler;
+import net.neoforged.neoforge.network.registration.HandlerThread;
+import org.jetbrains.annotations.Nullable;
 
+import net.minecraft.network.codec.StreamCodec;
 import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.Level;
 
 import java.util.function.*;
 
 public final class ExampleModPackets {
 
 	public static void init(final RegisterPayloadHandlersEvent event) {
-		final var registrar = event.registrar(ModList.get().getModFileById(ExampleMod.MOD_ID).versionString());
+		try (final var ignored = StartupTimeline.begin("RegisterPayloadHandlersEvent")) {
+			final var registrar = event.registrar(ModList.get().getModFileById(ExampleMod.MOD_ID).versionString());
+			// Thread safe payloads are handled directly on the network thread, only the work touching the world is queued for the
+			// main thread. Anything registered with this registrar must use onServerThreadSafe/onClientThreadSafe
+			final var threadSafeRegistrar = registrar.executesOn(HandlerThread.NETWORK);
 
-		// Client -> Server
-		registrar.playToServer(ExampleServerboundPacket.TYPE, ExampleServerboundPacket.CODEC, onServer(ExampleServerboundPacket::handle));
+			// Client -> Server
+			threadSafeRegistrar.playToServer(ExampleServerboundPacket.TYPE, traced(ExampleServerboundPacket.TYPE, ExampleServerboundPacket.CODEC),
+					onServerRateLimited(ExampleServerboundPacket.TYPE, ExampleServerboundPacket::receive, ExampleServerboundPacket::release,
+							ExampleServerboundPacket::handle));
 
-		// Server -> Client
-		registrar.playToClient(ExampleClientboundPacket.TYPE, ExampleClientboundPacket.CODEC, onClient(ExampleClientboundPacket::handle));
+			// Server -> Client
+			registrar.playToClient(ExampleClientboundPacket.TYPE, traced(ExampleClientboundPacket.TYPE, ExampleClientboundPacket.CODEC),
+					onClient(ExampleClientboundPacket.TYPE, ExampleClientboundPacket::handle));
+			threadSafeRegistrar.playToClient(ExampleClientboundBundlePacket.TYPE,
+					traced(ExampleClientboundBundlePacket.TYPE, ExampleClientboundBundlePacket.CODEC),
+					onClientThreadSafe(ExampleClientboundBundlePacket.TYPE, ExampleClientboundBundlePacket::handle));
+
+			// Payloads which can be broadcast through PayloadBroadcaster
+			PayloadBroadcaster.register(ExampleClientboundPacket.TYPE, ExampleClientboundPacket.CODEC, ExampleClientboundPacket::handle);
+			registrar.playToClient(SharedClientboundPacket.TYPE, traced(SharedClientboundPacket.TYPE, SharedClientboundPacket.CODEC),
+					onClient(SharedClientboundPacket.TYPE, SharedClientboundPacket::handle));
+		}
+	}
+
+	private static <T extends CustomPacketPayload> IPayloadHandler<T> onClient(final CustomPacketPayload.Type<T> type,
+			final Consumer<T> handler) {
+		final var probe = HandlerProfiler.probe("ExampleModPackets.onClient/" + type.id());
+		final var latency = queueLatencyProbe("enqueueWork", type);
+		return (payload, context) -> {
+			final long queuedAt = System.nanoTime();
+			context.enqueueWork(() -> {
+				latency.record(null, System.nanoTime() - queuedAt);
+				profiled(probe, type, queuedAt, context.player().level(), () -> handler.accept(payload));
+			});
+		};
+	}
+
+	private static <T extends CustomPacketPayload> IPayloadHandler<T> onServer(final CustomPacketPayload.Type<T> type,
+			final BiConsumer<T, ServerPlayer> handler) {
+		final var probe = HandlerProfiler.probe("ExampleModPackets.onServer/" + type.id());
+		final var latency = queueLatencyProbe("enqueueWork", type);
+		return (payload, context) -> {
+			final long queuedAt = System.nanoTime();
+			context.enqueueWork(() -> {
+				latency.record(null, System.nanoTime() - queuedAt);
+				final var player = (ServerPlayer) context.player();
+				profiled(probe, type, queuedAt, player.level(), () -> handler.accept(payload, player));
+			});
+		};
+	}
+
+	/**
+	 * Handler for a payload which is safe to handle on the network thread, must be registered to run on the network thread
+	 *
+	 * @param handler Returns the client thread part of the work, if any
+	 */
+	private static <T extends CustomPacketPayload> IPayloadHandler<T> onClientThreadSafe(final CustomPacketPayload.Type<T> type,
+			final Function<T, @Nullable Runnable> handler) {
+		final var probe = HandlerProfiler.probe("ExampleModPackets.onClient/" + type.id());
+		final var latency = queueLatencyProbe("mpsc", type);
+		return (payload, context) -> {
+			final var work = handler.apply(payload);
+			if (work == null) return;
+			final long queuedAt = System.nanoTime();
+			MainThreadQueue.CLIENT.submit(() -> profiled(probe, type, queuedAt, context.player().level(), work), latency);
+		};
+	}
+
+	/**
+	 * Handler for a payload which is safe to handle on the network thread, must be registered to run on the network thread
+	 */
+	private static <T extends CustomPacketPayload> IPayloadHandler<T> onServerThreadSafe(final CustomPacketPayload.Type<T> type,
+			final NetworkThreadHandler<T> handler) {
+		final var probe = HandlerProfiler.probe("ExampleModPackets.onServer/" + type.id());
+		final var latency = queueLatencyProbe("mpsc", type);
+		return (payload, context) -> {
+			final var player = (ServerPlayer) context.player();
+			final var work = handler.handle(payload, player);
+			if (work == null) return;
+			final long queuedAt = System.nanoTime();
+			MainThreadQueue.SERVER.submit(() -> profiled(probe, type, queuedAt, player.level(), work), latency);
+		};
+	}
+
+	/**
+	 * Like {@link #onServerThreadSafe} but checks {@link ServerboundRateLimiter} first, must be registered to run on the
+	 * network thread. The slot reserved in the rate limiter is freed once the queued work has run, or if it's dropped without
+	 * running
+	 *
+	 * @param receiver Runs for every payload, including ones rejected by the rate limiter. Must be cheap
+	 * @param released Runs for every payload once the network thread is done with it, frees anything held by the payload
+	 */
+	private static <T extends CustomPacketPayload> IPayloadHandler<T> onServerRateLimited(final CustomPacketPayload.Type<T> type,
+			final BiConsumer<T, ServerPlayer> receiver, final Consumer<T> released, final NetworkThreadHandler<T> handler) {
+		final var probe = HandlerProfiler.probe("ExampleModPackets.onServer/" + type.id());
+		final var latency = queueLatencyProbe("mpsc", type);
+		return (payload, context) -> {
+			final var player = (ServerPlayer) context.player();
+			try {
+				receiver.accept(payload, player);
+				if (!ServerboundRateLimiter.tryAcquire(player)) return;
+
+				boolean queued = false;
+				try {
+					final var work = handler.handle(payload, player);
+					if (work == null) return;
+					final long queuedAt = System.nanoTime();
+					MainThreadQueue.SERVER.submit(() -> {
+						try {
+							profiled(probe, type, queuedAt, player.level(), work);
+						} finally {
+							ServerboundRateLimiter.release(player);
+						}
+					}, latency, () -> ServerboundRateLimiter.release(player));
+					queued = true;
+				} finally {
+					if (!queued) ServerboundRateLimiter.release(player);
+				}
+			} finally {
+				released.accept(payload);
+			}
+		};
+	}
+
+	private static Probe queueLatencyProbe(final String mode, final CustomPacketPayload.Type<?> type) {
+		return HandlerProfiler.probe("ExampleModPackets.queueLatency/" + mode + "/" + type.id());
 	}
 
-	private static <T extends CustomPacketPayload> IPayloadHandler<T> onClient(final Consumer<T> handler) {
-		return (payload, context) -> context.enqueueWork(() -> handler.accept(payload));
+	/**
+	 * Wraps a payload codec so decoding shows up as a JFR event
+	 */
+	private static <B extends ByteBuf, T extends CustomPacketPayload> StreamCodec<B, T> traced(final CustomPacketPayload.Type<T> type,
+			final StreamCodec<B, T> codec) {
+		final String payloadType = type.id().toString();
+		return StreamCodec.of(codec, buffer -> {
+			final var event = new ExampleModJfrEvents.PayloadDecode();
+			event.begin();
+			final int start = buffer.readerIndex();
+			final T payload = codec.decode(buffer);
+			if (event.shouldCommit()) {
+				event.payloadType = payloadType;
+				event.size = buffer.readerIndex() - start;
+				event.commit();
+			}
+			return payload;
+		});
 	}
 
-	private static <T extends CustomPacketPayload> IPayloadHandler<T> onServer(final BiConsumer<T, ServerPlayer> handler) {
-		return (payload, context) -> context.enqueueWork(() -> handler.accept(payload, (ServerPlayer) context.player()));
+	/**
+	 * @param queuedAt When the work was queued for the main thread
+	 */
+	private static void profiled(final Probe probe, final CustomPacketPayload.Type<?> type, final long queuedAt, final Level level,
+			final Runnable work) {
+		final var event = new ExampleModJfrEvents.PayloadHandle();
+		if (!HandlerProfiler.isEnabled() && !event.isEnabled()) {
+			work.run();
+			return;
+		}
+		event.begin();
+		final long start = System.nanoTime();
+		work.run();
+		if (HandlerProfiler.isEnabled()) {
+			probe.record(level, System.nanoTime() - start);
+		}
+		if (event.shouldCommit()) {
+			event.payloadType = type.id().toString();
+			event.queueWait = start - queuedAt;
+			event.commit();
+		}
 	}
 }
\ No newline at end of file
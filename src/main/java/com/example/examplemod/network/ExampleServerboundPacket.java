@@ -1,14 +1,18 @@
 package com.example.examplemod.network;
 
 import com.example.examplemod.ExampleMod;
-import net.neoforged.neoforge.network.PacketDistributor;
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.*;
+import net.neoforged.neoforge.network.connection.ConnectionType;
 
-import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.network.*;
 import net.minecraft.network.chat.*;
 import net.minecraft.network.codec.StreamCodec;
 import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
 import net.minecraft.server.level.ServerPlayer;
 
+import java.util.UUID;
 import javax.annotation.Nullable;
 
 public class ExampleServerboundPacket implements CustomPacketPayload {
@@ -16,19 +20,193 @@ public class ExampleServerboundPacket implements CustomPacketPayload {
 	public static final CustomPacketPayload.Type<ExampleServerboundPacket> TYPE = new CustomPacketPayload.Type<>(
 			ExampleMod.location("example_server_packet"));
 
-	public static final StreamCodec<RegistryFriendlyByteBuf, ExampleServerboundPacket> CODEC = StreamCodec.composite(
-			ComponentSerialization.STREAM_CODEC, exampleServerboundPacket -> exampleServerboundPacket.component, ExampleServerboundPacket::new);
+	/**
+	 * Components go through the {@link ComponentDictionary}, a header holds the dictionary id and whether the component
+	 * follows. The component itself is written with a length prefix. Dictionary definitions are small and copied out of the
+	 * buffer, an inline component is kept as a retained slice of the received buffer so nothing is copied or decoded until
+	 * the rate limiter has accepted the payload
+	 */
+	public static final StreamCodec<RegistryFriendlyByteBuf, ExampleServerboundPacket> CODEC = StreamCodec.ofMember(
+			ExampleServerboundPacket::write, ExampleServerboundPacket::new);
 
-	private final Component component;
+	/**
+	 * Upper bound for the encoded component, anything larger is rejected before it's copied
+	 */
+	private static final int MAX_COMPONENT_BYTES = 8192;
+
+	@Nullable
+	private Component component;
+	/**
+	 * The dictionary id of the component or {@link ComponentDictionary#INLINE}
+	 */
+	private final int dictionaryId;
+	/**
+	 * The component bytes if this payload defines a dictionary entry
+	 */
+	@Nullable
+	private final byte[] encodedComponent;
+	/**
+	 * Retained slice of the received buffer holding an inline component, until it's decoded or {@link #release() released}
+	 */
+	@Nullable
+	private ByteBuf inlineComponent;
+	@Nullable
+	private final RegistryAccess registryAccess;
+	@Nullable
+	private final ConnectionType connectionType;
+	/**
+	 * The table the component is looked up and defined in when encoding
+	 */
+	private final ComponentDictionary.ClientTable dictionary;
 
 	public ExampleServerboundPacket(final Component component) {
+		this(component, ComponentDictionary.CLIENT);
+	}
+
+	/**
+	 * For simulated clients, which have a dictionary of their own
+	 */
+	public ExampleServerboundPacket(final Component component, final ComponentDictionary.ClientTable dictionary) {
 		this.component = component;
+		this.dictionary = dictionary;
+		this.dictionaryId = ComponentDictionary.INLINE;
+		this.encodedComponent = null;
+		this.inlineComponent = null;
+		this.registryAccess = null;
+		this.connectionType = null;
+	}
+
+	private ExampleServerboundPacket(final RegistryFriendlyByteBuf buffer) {
+		final int header = VarInt.read(buffer);
+		final boolean hasComponent = header == ComponentDictionary.INLINE || (header & 1) != 0;
+		this.component = null;
+		this.dictionaryId = header >>> 1;
+		if (dictionaryId > ComponentDictionary.MAX_ENTRIES) {
+			throw new DecoderException("Component dictionary id " + dictionaryId + " is out of range");
+		}
+		if (hasComponent) {
+			final int length = buffer.readUnsignedShort();
+			final int limit = dictionaryId == ComponentDictionary.INLINE ? MAX_COMPONENT_BYTES : ComponentDictionary.MAX_ENTRY_BYTES;
+			if (length > limit) {
+				throw new DecoderException("Component is " + length + " bytes, the limit is " + limit);
+			}
+			if (dictionaryId == ComponentDictionary.INLINE) {
+				this.encodedComponent = null;
+				this.inlineComponent = buffer.readRetainedSlice(length);
+			} else {
+				this.encodedComponent = new byte[length];
+				buffer.readBytes(encodedComponent);
+				this.inlineComponent = null;
+			}
+		} else {
+			this.encodedComponent = null;
+			this.inlineComponent = null;
+		}
+		this.registryAccess = buffer.registryAccess();
+		this.connectionType = buffer.getConnectionType();
+		this.dictionary = ComponentDictionary.CLIENT;
+	}
+
+	private void write(final RegistryFriendlyByteBuf buffer) {
+		final var component = component(null);
+		if (component == null) throw new EncoderException("Attempted to re-encode an unresolved component");
+
+		final int id = dictionary.id(component);
+		if (id != ComponentDictionary.INLINE) {
+			// Already defined, only the id needs to go over the wire
+			VarInt.write(buffer, id << 1);
+			return;
+		}
+
+		// Reserve the header and length and fill them in afterward, the header depends on how large the component is
+		final int headerIndex = buffer.writerIndex();
+		buffer.writeShort(0);
+		buffer.writeShort(0);
+		ComponentSerialization.STREAM_CODEC.encode(buffer, component);
+		final int length = buffer.writerIndex() - headerIndex - Short.BYTES * 2;
+		if (length > MAX_COMPONENT_BYTES) {
+			throw new EncoderException("Component is " + length + " bytes, the limit is " + MAX_COMPONENT_BYTES);
+		}
+		// Components too big to be worth keeping are always sent inline
+		final int newId = length <= ComponentDictionary.MAX_ENTRY_BYTES ? dictionary.assign(component) : ComponentDictionary.INLINE;
+		setPaddedVarInt(buffer, headerIndex, newId == ComponentDictionary.INLINE ? ComponentDictionary.INLINE : newId << 1 | 1);
+		buffer.setShort(headerIndex + Short.BYTES, length);
+	}
+
+	/**
+	 * Writes a {@link VarInt} padded to exactly two bytes, readable by {@link VarInt#read}
+	 */
+	private static void setPaddedVarInt(final FriendlyByteBuf buffer, final int index, final int value) {
+		assert value >>> 14 == 0 : "Value too large for a two byte VarInt";
+		buffer.setByte(index, value & 0x7F | 0x80);
+		buffer.setByte(index + 1, value >>> 7);
+	}
+
+	/**
+	 * Records the dictionary definition carried by this payload (if any). Called on the network thread for every received
+	 * payload, even ones which are rejected by the rate limiter, so the player's dictionary stays in sync with the client's
+	 */
+	void receive(final ServerPlayer player) {
+		receive(player.getUUID());
+	}
+
+	void receive(final UUID player) {
+		if (dictionaryId != ComponentDictionary.INLINE && encodedComponent != null) {
+			ComponentDictionary.define(player, dictionaryId, encodedComponent);
+		}
+	}
+
+	/**
+	 * Releases the inline component if it was never decoded. Called on the network thread once the payload has been handled
+	 * or rejected
+	 */
+	void release() {
+		final var encoded = inlineComponent;
+		if (encoded == null) return;
+		inlineComponent = null;
+		encoded.release();
+	}
+
+	/**
+	 * Resolves the component, decoding it on first access
+	 *
+	 * @param player The id of the player who sent the payload, null on the sending side
+	 *
+	 * @return The component or null if it references a dictionary id the player never defined
+	 */
+	@Nullable
+	Component component(@Nullable final UUID player) {
+		if (component != null) return component;
+		if (registryAccess == null || connectionType == null) return null;
+		if (dictionaryId == ComponentDictionary.INLINE) {
+			final var encoded = inlineComponent;
+			if (encoded == null) return null;
+			inlineComponent = null;
+			try {
+				component = ComponentDictionary.decode(encoded, registryAccess, connectionType);
+			} finally {
+				encoded.release();
+			}
+		} else if (player != null) {
+			component = ComponentDictionary.resolve(player, dictionaryId, registryAccess, connectionType);
+		}
+		return component;
 	}
 
-	void handle(@Nullable final ServerPlayer player) {
-		if (player == null) return;
-		player.sendSystemMessage(component);
-		PacketDistributor.sendToPlayer(player, new ExampleClientboundPacket(player.getId()));
+	/**
+	 * Runs on the network thread, the component is resolved here so the server thread never has to decode it
+	 */
+	@Nullable
+	Runnable handle(final ServerPlayer player) {
+		final var component = component(player.getUUID());
+		if (component == null) return null;
+		return () -> {
+			if (player.hasDisconnected()) return;
+			player.sendSystemMessage(component);
+			// The player gets their update batched with the rest of the tick, everyone tracking them shares a single encode
+			ClientboundBatcher.queue(player, player.getId());
+			PayloadBroadcaster.sendToPlayersTrackingEntity(player, new ExampleClientboundPacket(player.getId()));
+		};
 	}
 
 	@Override
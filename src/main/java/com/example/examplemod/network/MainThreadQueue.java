@@ -0,0 +1,96 @@
+package com.example.examplemod.network;
+
+import com.example.examplemod.ExampleModLog;
+import com.example.examplemod.profiling.HandlerProfiler.Probe;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock free multi producer, single consumer queue of work handed from the network threads to a main thread. Drained once
+ * per tick by the owning side, see {@link #SERVER} and {@link #CLIENT}.
+ */
+public final class MainThreadQueue {
+
+	/**
+	 * Drained at the start of every server tick
+	 */
+	public static final MainThreadQueue SERVER = new MainThreadQueue();
+	/**
+	 * Drained at the start of every client tick
+	 */
+	public static final MainThreadQueue CLIENT = new MainThreadQueue();
+
+	private static final ExampleModLog.CallSite WORK_FAILED = ExampleModLog.error("Exception running queued network work");
+
+	private final ConcurrentLinkedQueue<Task> tasks = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger depth = new AtomicInteger();
+
+	private MainThreadQueue() {
+	}
+
+	/**
+	 * Queues work to run on the next drain
+	 *
+	 * @param latency Records how long the work waited in the queue
+	 */
+	public void submit(final Runnable work, final Probe latency) {
+		submit(work, latency, null);
+	}
+
+	/**
+	 * Queues work to run on the next drain
+	 *
+	 * @param latency   Records how long the work waited in the queue
+	 * @param discarded Runs instead of the work if it's dropped by {@link #clear()}, to free anything the work would have
+	 */
+	public void submit(final Runnable work, final Probe latency, @Nullable final Runnable discarded) {
+		tasks.offer(new Task(work, latency, System.nanoTime(), discarded));
+		depth.incrementAndGet();
+	}
+
+	/**
+	 * Runs everything queued up to this point. Work queued while draining waits for the next drain so a busy network thread
+	 * can't keep the main thread here forever
+	 */
+	public void drain() {
+		for (int remaining = depth.get(); remaining > 0; remaining--) {
+			final var task = tasks.poll();
+			if (task == null) return;
+			depth.decrementAndGet();
+			task.latency.record(null, System.nanoTime() - task.queuedAt);
+			try {
+				task.work.run();
+			} catch (final Exception exception) {
+				WORK_FAILED.log(exception);
+			}
+		}
+	}
+
+	/**
+	 * Drops anything still queued, for when the owning side shuts down
+	 */
+	public void clear() {
+		// Only count what was actually removed, resetting to zero would lose work submitted while clearing
+		for (var task = tasks.poll(); task != null; task = tasks.poll()) {
+			depth.decrementAndGet();
+			if (task.discarded != null) {
+				try {
+					task.discarded.run();
+				} catch (final Exception exception) {
+					WORK_FAILED.log(exception);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return The amount of work waiting to be run
+	 */
+	public int depth() {
+		return depth.get();
+	}
+
+	private record Task(Runnable work, Probe latency, long queuedAt, @Nullable Runnable discarded) {}
+}
\ No newline at end of file
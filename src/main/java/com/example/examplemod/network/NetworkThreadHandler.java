@@ -0,0 +1,20 @@
+package com.example.examplemod.network;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.server.level.ServerPlayer;
+
+/**
+ * Handler for payloads registered as thread safe. Runs directly on the network thread and returns only the work which has to
+ * touch the world, which is handed to the server thread through {@link MainThreadQueue#SERVER}
+ */
+@FunctionalInterface
+public interface NetworkThreadHandler<T extends CustomPacketPayload> {
+
+	/**
+	 * @return Work to run on the server thread or null if there's nothing left to do
+	 */
+	@Nullable
+	Runnable handle(T payload, ServerPlayer player);
+}
\ No newline at end of file
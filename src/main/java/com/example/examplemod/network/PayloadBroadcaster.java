@@ -0,0 +1,88 @@
+package com.example.examplemod.network;
+
+import io.netty.buffer.*;
+import io.netty.handler.codec.DecoderException;
+import net.neoforged.neoforge.network.PacketDistributor;
+
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.world.entity.Entity;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Sends a payload to many players while only encoding it once. The payload is encoded into a shared read only buffer
+ * which every connection copies from, so the cost of fanning out to N players no longer scales with the cost of the payload
+ * codec. The buffer is heap backed and never written after creation, once the last connection has copied it the garbage
+ * collector reclaims it so no manual reference counting is needed.
+ * <p>
+ * Payloads have to be registered with {@link #register} (on both sides, in the same order) before they can be broadcast.
+ */
+public final class PayloadBroadcaster {
+
+	private static final List<Entry<?>> ENTRIES = new ArrayList<>();
+	private static final Map<CustomPacketPayload.Type<?>, Entry<?>> BY_TYPE = new IdentityHashMap<>();
+
+	/**
+	 * Registers a payload type which can be broadcast. Should be called from {@link ExampleModPackets#init}
+	 *
+	 * @param clientHandler Handles the payload on the client thread once it arrives
+	 */
+	public static synchronized <T extends CustomPacketPayload> void register(final CustomPacketPayload.Type<T> type,
+			final StreamCodec<ByteBuf, T> codec, final Consumer<T> clientHandler) {
+		if (BY_TYPE.containsKey(type)) throw new IllegalStateException("Duplicate broadcast payload " + type.id());
+		final var entry = new Entry<>(ENTRIES.size(), type, codec, clientHandler);
+		ENTRIES.add(entry);
+		BY_TYPE.put(type, entry);
+	}
+
+	/**
+	 * Sends the payload to every player tracking the entity
+	 */
+	public static <T extends CustomPacketPayload> void sendToPlayersTrackingEntity(final Entity entity, final T payload) {
+		PacketDistributor.sendToPlayersTrackingEntity(entity, share(payload));
+	}
+
+	/**
+	 * Sends the payload to every player tracking the entity and the entity itself, if it's a player
+	 */
+	public static <T extends CustomPacketPayload> void sendToPlayersTrackingEntityAndSelf(final Entity entity, final T payload) {
+		PacketDistributor.sendToPlayersTrackingEntityAndSelf(entity, share(payload));
+	}
+
+	/**
+	 * Encodes the payload once, the result can be sent to any number of players
+	 */
+	public static <T extends CustomPacketPayload> SharedClientboundPacket share(final T payload) {
+		final Entry<T> entry = entry(payload.type());
+		final var buffer = Unpooled.buffer();
+		entry.codec.encode(buffer, payload);
+		return new SharedClientboundPacket(entry.index, buffer.asReadOnly());
+	}
+
+	static CustomPacketPayload decode(final int payloadIndex, final ByteBuf buffer) {
+		if (payloadIndex < 0 || payloadIndex >= ENTRIES.size()) throw new DecoderException("Unknown shared payload index " + payloadIndex);
+		return ENTRIES.get(payloadIndex).codec.decode(buffer);
+	}
+
+	static void handle(final int payloadIndex, final CustomPacketPayload payload) {
+		ENTRIES.get(payloadIndex).handle(payload);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T extends CustomPacketPayload> Entry<T> entry(final CustomPacketPayload.Type<? extends CustomPacketPayload> type) {
+		final var entry = BY_TYPE.get(type);
+		if (entry == null) throw new IllegalArgumentException("Payload " + type.id() + " was not registered for broadcasting");
+		return (Entry<T>) entry;
+	}
+
+	private record Entry<T extends CustomPacketPayload>(int index, CustomPacketPayload.Type<T> type, StreamCodec<ByteBuf, T> codec,
+			Consumer<T> clientHandler) {
+
+		@SuppressWarnings("unchecked")
+		private void handle(final CustomPacketPayload payload) {
+			clientHandler.accept((T) payload);
+		}
+	}
+}
\ No newline at end of file
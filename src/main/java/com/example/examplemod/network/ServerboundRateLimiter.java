@@ -0,0 +1,108 @@
+package com.example.examplemod.network;
+
+import com.example.examplemod.config.ExampleModConfig;
+
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Per player token bucket and queued work cap for serverbound payloads. Checked on the network thread before the payload
+ * body is decoded so a client flooding us costs neither decode time nor space in the server thread's queue.
+ */
+public final class ServerboundRateLimiter {
+
+	private static final Map<UUID, PlayerLimiter> LIMITERS = new ConcurrentHashMap<>();
+	private static final LongAdder THROTTLED = new LongAdder();
+	private static final LongAdder DROPPED = new LongAdder();
+
+	/**
+	 * Takes a token for the player and reserves a slot in the server thread queue. When this returns {@code true}
+	 * {@link #release(ServerPlayer)} must be called once the queued work has run.
+	 *
+	 * @return If the payload should be handled
+	 */
+	public static boolean tryAcquire(final ServerPlayer player) {
+		final var limiter = LIMITERS.computeIfAbsent(player.getUUID(), uuid -> new PlayerLimiter(player.getGameProfile().getName()));
+		if (!limiter.tryTakeToken()) {
+			limiter.throttled.increment();
+			THROTTLED.increment();
+			return false;
+		}
+		if (limiter.queued.incrementAndGet() > ExampleModConfig.SERVER.snapshot().maxQueuedPayloadsPerPlayer()) {
+			limiter.queued.decrementAndGet();
+			limiter.dropped.increment();
+			DROPPED.increment();
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Frees the queue slot reserved by {@link #tryAcquire(ServerPlayer)}
+	 */
+	public static void release(final ServerPlayer player) {
+		final var limiter = LIMITERS.get(player.getUUID());
+		if (limiter != null) {
+			limiter.queued.decrementAndGet();
+		}
+	}
+
+	public static void remove(final ServerPlayer player) {
+		LIMITERS.remove(player.getUUID());
+	}
+
+	/**
+	 * @return How many payloads were rejected because the player ran out of tokens
+	 */
+	public static long throttledCount() {
+		return THROTTLED.sum();
+	}
+
+	/**
+	 * @return How many payloads were rejected because the player already had too much work queued
+	 */
+	public static long droppedCount() {
+		return DROPPED.sum();
+	}
+
+	/**
+	 * @return Every online player that has had a payload rejected, worst first
+	 */
+	public static List<Offender> offenders() {
+		return LIMITERS.values()
+				.stream()
+				.map(limiter -> new Offender(limiter.playerName, limiter.throttled.sum(), limiter.dropped.sum()))
+				.filter(offender -> offender.throttled() + offender.dropped() > 0)
+				.sorted(Comparator.comparingLong((Offender offender) -> offender.throttled() + offender.dropped()).reversed())
+				.toList();
+	}
+
+	public record Offender(String playerName, long throttled, long dropped) {}
+
+	private static final class PlayerLimiter {
+
+		private final String playerName;
+		private final AtomicInteger queued = new AtomicInteger();
+		private final LongAdder throttled = new LongAdder();
+		private final LongAdder dropped = new LongAdder();
+		private double tokens = ExampleModConfig.SERVER.snapshot().serverboundPayloadBurst();
+		private long lastRefill = System.nanoTime();
+
+		private PlayerLimiter(final String playerName) {
+			this.playerName = playerName;
+		}
+
+		private synchronized boolean tryTakeToken() {
+			final long now = System.nanoTime();
+			final var config = ExampleModConfig.SERVER.snapshot();
+			tokens = Math.min(config.serverboundPayloadBurst(), tokens + (now - lastRefill) * config.serverboundPayloadsPerSecond() / 1_000_000_000D);
+			lastRefill = now;
+			if (tokens < 1) return false;
+			tokens -= 1;
+			return true;
+		}
+	}
+}
\ No newline at end of file
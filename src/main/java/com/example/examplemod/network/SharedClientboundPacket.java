@@ -0,0 +1,77 @@
+package com.example.examplemod.network;
+
+import com.example.examplemod.ExampleMod;
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.network.VarInt;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+
+/**
+ * Carries a payload which was encoded once by {@link PayloadBroadcaster} and is sent to many players. Every connection
+ * copies the already encoded bytes instead of running the payload codec again.
+ * <p>
+ * On the sending side {@link #encoded} holds the shared read only buffer, on the receiving side {@link #payload} holds the
+ * decoded payload. Local (in memory) connections skip encoding entirely so they receive the sending side instance and
+ * decode from the shared buffer when handled.
+ */
+public final class SharedClientboundPacket implements CustomPacketPayload {
+
+	public static final Type<SharedClientboundPacket> TYPE = new Type<>(ExampleMod.location("shared_client_packet"));
+
+	public static final StreamCodec<ByteBuf, SharedClientboundPacket> CODEC = StreamCodec.of(SharedClientboundPacket::encode,
+			SharedClientboundPacket::decode);
+
+	private final int payloadIndex;
+	@Nullable
+	private final ByteBuf encoded;
+	@Nullable
+	private final CustomPacketPayload payload;
+
+	SharedClientboundPacket(final int payloadIndex, final ByteBuf encoded) {
+		this.payloadIndex = payloadIndex;
+		this.encoded = encoded;
+		this.payload = null;
+	}
+
+	private SharedClientboundPacket(final int payloadIndex, final CustomPacketPayload payload) {
+		this.payloadIndex = payloadIndex;
+		this.encoded = null;
+		this.payload = payload;
+	}
+
+	private static void encode(final ByteBuf buffer, final SharedClientboundPacket packet) {
+		if (packet.encoded == null) throw new IllegalStateException("Attempted to re-encode a received shared payload");
+		VarInt.write(buffer, packet.payloadIndex);
+		// Absolute read so the shared buffer's indices are never touched, it's read by many connections at once
+		buffer.writeBytes(packet.encoded, packet.encoded.readerIndex(), packet.encoded.readableBytes());
+	}
+
+	private static SharedClientboundPacket decode(final ByteBuf buffer) {
+		final int payloadIndex = VarInt.read(buffer);
+		return new SharedClientboundPacket(payloadIndex, PayloadBroadcaster.decode(payloadIndex, buffer));
+	}
+
+	/**
+	 * @return The payload this carries, decoded from the shared buffer on the sending side
+	 */
+	public CustomPacketPayload payload() {
+		if (payload != null) return payload;
+		if (encoded == null) throw new IllegalStateException("Shared payload has neither a payload nor its encoding");
+		return PayloadBroadcaster.decode(payloadIndex, encoded.duplicate());
+	}
+
+	void handle() {
+		if (payload != null) {
+			PayloadBroadcaster.handle(payloadIndex, payload);
+		} else if (encoded != null) {
+			PayloadBroadcaster.handle(payloadIndex, PayloadBroadcaster.decode(payloadIndex, encoded.duplicate()));
+		}
+	}
+
+	@Override
+	public Type<? extends CustomPacketPayload> type() {
+		return TYPE;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.example.examplemod.profiling;
+
+import jdk.jfr.*;
+
+/**
+ * Java Flight Recorder events. All of them are disabled by default and switched on by the bundled {@code examplemod.jfc}
+ * settings, for example {@code -XX:StartFlightRecording:settings=default,settings=examplemod.jfc}. While disabled
+ * {@link Event#shouldCommit()} is false, fields should only be filled in after checking it so a disabled event is just an
+ * allocation the JIT removes.
+ */
+public final class ExampleModJfrEvents {
+
+	private static final String CATEGORY = "Example Mod";
+
+	/**
+	 * Registers the events up front so they show up in recordings and JMC before the first one is committed
+	 */
+	public static void register() {
+		FlightRecorder.register(LevelTick.class);
+		FlightRecorder.register(PayloadDecode.class);
+		FlightRecorder.register(PayloadHandle.class);
+		FlightRecorder.register(ItemUse.class);
+	}
+
+	@Name("examplemod.LevelTick")
+	@Label("Level Tick")
+	@Description("Our level tick handler")
+	@Category({CATEGORY, "Tick"})
+	@Enabled(false)
+	@StackTrace(false)
+	public static final class LevelTick extends Event {
+
+		@Label("Dimension")
+		public String dimension;
+	}
+
+	@Name("examplemod.PayloadDecode")
+	@Label("Payload Decode")
+	@Description("Decoding one of our payloads on the network thread")
+	@Category({CATEGORY, "Network"})
+	@Enabled(false)
+	@StackTrace(false)
+	public static final class PayloadDecode extends Event {
+
+		@Label("Payload Type")
+		public String payloadType;
+		@Label("Size")
+		@DataAmount
+		public int size;
+	}
+
+	@Name("examplemod.PayloadHandle")
+	@Label("Payload Handle")
+	@Description("Main thread part of handling one of our payloads")
+	@Category({CATEGORY, "Network"})
+	@Enabled(false)
+	@StackTrace(false)
+	public static final class PayloadHandle extends Event {
+
+		@Label("Payload Type")
+		public String payloadType;
+		@Label("Queue Wait")
+		@Description("How long the work waited for the main thread")
+		@Timespan
+		public long queueWait;
+	}
+
+	@Name("examplemod.ItemUse")
+	@Label("Item Use")
+	@Description("Server side use of one of our items")
+	@Category({CATEGORY, "Item"})
+	@Enabled(false)
+	@StackTrace(false)
+	public static final class ItemUse extends Event {
+
+		@Label("Item")
+		public String item;
+		@Label("Player")
+		public String player;
+		@Label("Hand")
+		public String hand;
+	}
+}
@@ -0,0 +1,129 @@
+package com.example.examplemod.profiling;
+
+import com.example.examplemod.profiling.LatencyHistogram.Stats;
+import net.neoforged.bus.api.*;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+/**
+ * Records call counts and latency for the mod's event listeners and payload handlers, split up by the level they ran for.
+ * Listeners should be registered through {@link #addListener} so they show up in {@code /examplemod perf}.
+ */
+public final class HandlerProfiler {
+
+	private static final Map<String, Probe> PROBES = new ConcurrentHashMap<>();
+	private static volatile boolean enabled = true;
+
+	/**
+	 * Registers a listener which is timed by the profiler
+	 *
+	 * @param name Name of the handler shown in reports, usually {@code ClassName.methodName}
+	 */
+	public static <E extends Event> void addListener(final IEventBus eventBus, final Class<E> eventType, final String name,
+			final Consumer<E> handler) {
+		eventBus.addListener(eventType, wrap(name, handler, event -> null));
+	}
+
+	/**
+	 * Registers a listener which is timed by the profiler and attributed to the level returned by {@code levelGetter}
+	 *
+	 * @param name Name of the handler shown in reports, usually {@code ClassName.methodName}
+	 */
+	public static <E extends Event> void addListener(final IEventBus eventBus, final Class<E> eventType, final String name,
+			final Consumer<E> handler, final Function<E, @Nullable Level> levelGetter) {
+		eventBus.addListener(eventType, wrap(name, handler, levelGetter));
+	}
+
+	public static <E> Consumer<E> wrap(final String name, final Consumer<E> handler, final Function<E, @Nullable Level> levelGetter) {
+		final var probe = probe(name);
+		return event -> {
+			if (!enabled) {
+				handler.accept(event);
+				return;
+			}
+			final long start = System.nanoTime();
+			try {
+				handler.accept(event);
+			} finally {
+				probe.record(levelGetter.apply(event), System.nanoTime() - start);
+			}
+		};
+	}
+
+	/**
+	 * Gets or creates the probe for the handler with the given name. Used for handlers which aren't event listeners like
+	 * payload handlers
+	 */
+	public static Probe probe(final String name) {
+		return PROBES.computeIfAbsent(name, Probe::new);
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	public static void setEnabled(final boolean enabled) {
+		HandlerProfiler.enabled = enabled;
+	}
+
+	public static void reset() {
+		PROBES.values().forEach(Probe::reset);
+	}
+
+	/**
+	 * Collects the recorded stats for every handler, grouped by level and sorted by total time spent (highest first).
+	 * Handlers which didn't run for a specific level are grouped under {@code null}
+	 */
+	public static Map<@Nullable ResourceKey<Level>, List<Entry>> report() {
+		final Map<@Nullable ResourceKey<Level>, List<Entry>> report = new HashMap<>();
+		for (final var probe : PROBES.values()) {
+			addEntry(report, null, probe.name, probe.global);
+			probe.levels.forEach((level, histogram) -> addEntry(report, level, probe.name, histogram));
+		}
+		report.values().forEach(entries -> entries.sort(Comparator.comparingLong((Entry entry) -> entry.stats().total()).reversed()));
+		return report;
+	}
+
+	private static void addEntry(final Map<@Nullable ResourceKey<Level>, List<Entry>> report, final @Nullable ResourceKey<Level> level,
+			final String name, final LatencyHistogram histogram) {
+		final var stats = histogram.stats();
+		if (stats.count() == 0) return;
+		report.computeIfAbsent(level, key -> new ArrayList<>()).add(new Entry(name, stats));
+	}
+
+	public record Entry(String handler, Stats stats) {}
+
+	public static final class Probe {
+
+		private final String name;
+		private final LatencyHistogram global = new LatencyHistogram();
+		private final Map<ResourceKey<Level>, LatencyHistogram> levels = new ConcurrentHashMap<>();
+
+		private Probe(final String name) {
+			this.name = name;
+		}
+
+		/**
+		 * @param level The level the handler ran for, if any
+		 * @param nanos How long the handler took
+		 */
+		public void record(final @Nullable Level level, final long nanos) {
+			if (level == null) {
+				global.record(nanos);
+				return;
+			}
+			levels.computeIfAbsent(level.dimension(), key -> new LatencyHistogram()).record(nanos);
+		}
+
+		private void reset() {
+			global.reset();
+			levels.values().forEach(LatencyHistogram::reset);
+		}
+	}
+}
\ No newline at end of file
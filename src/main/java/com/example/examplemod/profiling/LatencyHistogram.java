@@ -0,0 +1,78 @@
+package com.example.examplemod.profiling;
+
+import java.util.concurrent.atomic.*;
+
+/**
+ * A lock free latency histogram with power of two buckets. Recording never allocates, percentiles are accurate to
+ * within a factor of two which is plenty to tell a cheap handler from an expensive one.
+ */
+public final class LatencyHistogram {
+
+	private static final int BUCKETS = 64;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private final AtomicLong total = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	public void record(final long nanos) {
+		final long value = Math.max(nanos, 0);
+		buckets.incrementAndGet(bucket(value));
+		total.addAndGet(value);
+		max.accumulateAndGet(value, Math::max);
+	}
+
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			buckets.set(i, 0);
+		}
+		total.set(0);
+		max.set(0);
+	}
+
+	public Stats stats() {
+		final long[] counts = new long[BUCKETS];
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] = buckets.get(i);
+			count += counts[i];
+		}
+		final long max = this.max.get();
+		return new Stats(count, total.get(), percentile(counts, count, 0.5, max), percentile(counts, count, 0.99, max), max);
+	}
+
+	private static long percentile(final long[] counts, final long count, final double quantile, final long max) {
+		if (count == 0) return 0;
+		final long rank = Math.max(1, (long) Math.ceil(quantile * count));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+			if (seen >= rank) return Math.min(upperBound(i), max);
+		}
+		return max;
+	}
+
+	/**
+	 * Bucket {@code 0} holds zero, bucket {@code n} holds values in {@code [2^(n-1), 2^n)}
+	 */
+	private static int bucket(final long value) {
+		return BUCKETS - Long.numberOfLeadingZeros(value);
+	}
+
+	private static long upperBound(final int bucket) {
+		if (bucket == 0) return 0;
+		if (bucket >= BUCKETS - 1) return Long.MAX_VALUE;
+		return (1L << bucket) - 1;
+	}
+
+	/**
+	 * Point in time view of a histogram, all times are in nanoseconds
+	 */
+	public record Stats(long count, long total, long p50, long p99, long max) {
+
+		public static String formatNanos(final long nanos) {
+			if (nanos >= 1_000_000) return String.format("%.2fms", nanos / 1_000_000D);
+			if (nanos >= 1_000) return String.format("%.1fµs", nanos / 1_000D);
+			return nanos + "ns";
+		}
+	}
+}
\ No newline at end of file
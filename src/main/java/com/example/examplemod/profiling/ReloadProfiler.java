@@ -0,0 +1,323 @@
+package com.example.examplemod.profiling;
+
+import com.example.examplemod.ExampleMod;
+import com.google.gson.*;
+import net.neoforged.fml.loading.FMLPaths;
+import net.neoforged.neoforge.event.AddReloadListenerEvent;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.*;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static com.example.examplemod.profiling.LatencyHistogram.Stats.formatNanos;
+
+/**
+ * Profiles a datapack reload of every JSON directory: recipes, advancements, TFC's item heat and size definitions and
+ * whatever else is loaded through a {@link SimpleJsonResourceReloadListener}. For every directory it records how many files
+ * each namespace contributed, how long the listener took to prepare (list and parse the files) and to apply them, and the
+ * {@value #SLOWEST_FILES} files that took the longest to read and parse.
+ * <p>
+ * The real listeners are measured as they run, see {@code SimplePreparableReloadListenerMixin}: the executors a listener
+ * prepares and applies on are wrapped for the duration of an armed reload, so there's nothing to pay outside of one. Any
+ * JSON listener reloading while the profiled reload is in progress is counted, which includes client resource reloads in
+ * single player. Files are timed one by one inside {@link SimpleJsonResourceReloadListener#scanDirectory}, from opening the
+ * file until it is parsed. A reload is profiled once armed through {@link #profileNextReload(Consumer)}, the report is written as
+ * JSON to {@value #FILE_NAME} in the game directory.
+ */
+public final class ReloadProfiler {
+
+	public static final String FILE_NAME = "examplemod-reload-profile.json";
+	/**
+	 * How many of the slowest files are kept per directory
+	 */
+	public static final int SLOWEST_FILES = 5;
+
+	private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+	/**
+	 * The file being read on this thread, scanning a directory runs entirely on one thread
+	 */
+	private static final ThreadLocal<ReadingFile> READING = ThreadLocal.withInitial(ReadingFile::new);
+
+	@Nullable
+	private static volatile Consumer<Report> armed;
+	@Nullable
+	private static volatile Pending pending;
+	@Nullable
+	private static volatile Report last;
+
+	/**
+	 * Profiles the next reload, the report is handed to the callback on the server thread once the reload completes
+	 *
+	 * @return False if a profiled reload is already in progress
+	 */
+	public static synchronized boolean profileNextReload(final Consumer<Report> callback) {
+		if (armed != null || pending != null) return false;
+		armed = callback;
+		return true;
+	}
+
+	/**
+	 * Gives up on a profiled reload, for when the reload failed
+	 */
+	public static synchronized void cancel() {
+		armed = null;
+		pending = null;
+	}
+
+	/**
+	 * @return The last report or null if no reload was profiled yet
+	 */
+	@Nullable
+	public static Report last() {
+		return last;
+	}
+
+	/**
+	 * Starts profiling if a reload was armed, fires at the start of every reload before the listeners run
+	 */
+	public static void onAddReloadListeners(final AddReloadListenerEvent event) {
+		final Consumer<Report> callback;
+		synchronized (ReloadProfiler.class) {
+			callback = armed;
+			armed = null;
+		}
+		if (callback != null) pending = new Pending(System.nanoTime(), callback);
+	}
+
+	/**
+	 * Finishes the profiled reload if there is one, called on the server thread once the reloaded data is in place
+	 */
+	public static void onReloaded() {
+		final var reload = pending;
+		if (reload == null) return;
+		pending = null;
+		final long reloadNanos = System.nanoTime() - reload.start;
+
+		final var directories = new ArrayList<DirectoryStats>();
+		reload.directories.forEach((directory, stats) -> directories.add(stats.snapshot(directory)));
+		directories.sort(Comparator.comparingLong(DirectoryStats::totalNanos).reversed());
+		final var report = new Report(reloadNanos, List.copyOf(directories));
+		last = report;
+		write(report);
+		reload.callback.accept(report);
+	}
+
+	/**
+	 * Wraps the executor a listener prepares on, called for every listener at the start of its reload
+	 *
+	 * @return The executor the listener should use
+	 */
+	public static Executor prepareExecutor(final PreparableReloadListener listener, final Executor executor) {
+		final var stats = stats(listener);
+		if (stats == null) return executor;
+		return task -> executor.execute(() -> timed(task, stats.prepareNanos));
+	}
+
+	/**
+	 * Wraps the executor a listener applies on, called for every listener at the start of its reload
+	 *
+	 * @return The executor the listener should use
+	 */
+	public static Executor applyExecutor(final PreparableReloadListener listener, final Executor executor) {
+		final var stats = stats(listener);
+		if (stats == null) return executor;
+		return task -> executor.execute(() -> timed(task, stats.applyNanos));
+	}
+
+	/**
+	 * Counts the files a JSON listener prepared, called on the executor the listener prepares on
+	 */
+	public static void onPrepared(final String directory, final Map<ResourceLocation, JsonElement> files) {
+		final var reload = pending;
+		if (reload == null) return;
+		final var namespaces = reload.directory(directory).files;
+		files.keySet().forEach(location -> namespaces.merge(location.getNamespace(), 1, Integer::sum));
+	}
+
+	/**
+	 * Starts timing a file if a reload is being profiled, called before the file is opened
+	 *
+	 * @return The id of the file
+	 */
+	public static ResourceLocation onReading(final ResourceLocation id) {
+		if (pending != null) {
+			final var reading = READING.get();
+			reading.id = id;
+			reading.start = System.nanoTime();
+		}
+		return id;
+	}
+
+	/**
+	 * Records how long the file passed to {@link #onReading(ResourceLocation)} took, called once it is parsed
+	 */
+	public static void onParsed(final String directory) {
+		final var reload = pending;
+		if (reload == null) return;
+		final var reading = READING.get();
+		if (reading.id == null) return;
+		reload.directory(directory).onParsed(reading.id, System.nanoTime() - reading.start);
+		reading.id = null;
+	}
+
+	@Nullable
+	private static Directory stats(final PreparableReloadListener listener) {
+		final var reload = pending;
+		if (reload == null || !(listener instanceof JsonDirectory json)) return null;
+		return reload.directory(json.examplemod$directory());
+	}
+
+	private static void timed(final Runnable task, final AtomicLong nanos) {
+		final long start = System.nanoTime();
+		try {
+			task.run();
+		} finally {
+			nanos.addAndGet(System.nanoTime() - start);
+		}
+	}
+
+	private static void write(final Report report) {
+		final var json = new JsonObject();
+		json.addProperty("reloadMillis", report.reloadNanos / 1_000_000D);
+		final var directories = new JsonArray();
+		for (final var stats : report.directories) {
+			final var directory = new JsonObject();
+			directory.addProperty("directory", stats.directory);
+			final var files = new JsonObject();
+			stats.files.forEach(files::addProperty);
+			directory.add("files", files);
+			directory.addProperty("prepareMillis", stats.prepareNanos / 1_000_000D);
+			directory.addProperty("applyMillis", stats.applyNanos / 1_000_000D);
+			final var slowest = new JsonArray();
+			for (final var file : stats.slowest) {
+				final var entry = new JsonObject();
+				entry.addProperty("file", file.file.toString());
+				entry.addProperty("millis", file.nanos / 1_000_000D);
+				slowest.add(entry);
+			}
+			directory.add("slowest", slowest);
+			directories.add(directory);
+		}
+		json.add("directories", directories);
+
+		final Path path = FMLPaths.GAMEDIR.get().resolve(FILE_NAME);
+		try {
+			Files.writeString(path, GSON.toJson(json));
+		} catch (final IOException exception) {
+			ExampleMod.LOG.warn("Failed to write reload profile to {}", path, exception);
+		}
+	}
+
+	/**
+	 * Implemented by {@link SimpleJsonResourceReloadListener} through {@code SimpleJsonResourceReloadListenerMixin}
+	 */
+	public interface JsonDirectory {
+
+		/**
+		 * @return The directory the listener loads its files from
+		 */
+		String examplemod$directory();
+	}
+
+	/**
+	 * @param reloadNanos Wall time from the start of the reload until the reloaded data was in place
+	 * @param directories Per directory stats, the slowest first
+	 */
+	public record Report(long reloadNanos, List<DirectoryStats> directories) {
+
+		/**
+		 * @return The report as lines for chat
+		 */
+		public List<String> lines() {
+			final var lines = new ArrayList<String>();
+			lines.add("Reload took " + formatNanos(reloadNanos));
+			for (final var stats : directories) {
+				lines.add(String.format("  %s files=%s prepare=%s apply=%s", stats.directory, stats.files, formatNanos(stats.prepareNanos),
+						formatNanos(stats.applyNanos)));
+				if (!stats.slowest.isEmpty()) {
+					lines.add("    slowest " + String.join(", ", stats.slowest.stream().map(file -> file.file + " " + formatNanos(file.nanos)).toList()));
+				}
+			}
+			return lines;
+		}
+	}
+
+	/**
+	 * @param files        File count by namespace, sorted by namespace
+	 * @param prepareNanos Time spent listing and parsing the files
+	 * @param applyNanos   Time spent applying the parsed files on the server thread
+	 * @param slowest      Up to {@value ReloadProfiler#SLOWEST_FILES} files that took the longest to read and parse, the slowest first
+	 */
+	public record DirectoryStats(String directory, SortedMap<String, Integer> files, long prepareNanos, long applyNanos, List<FileTime> slowest) {
+
+		public long totalNanos() {
+			return prepareNanos + applyNanos;
+		}
+	}
+
+	/**
+	 * @param nanos Time from opening the file until it was parsed
+	 */
+	public record FileTime(ResourceLocation file, long nanos) {}
+
+	private static final class Directory {
+
+		private final Map<String, Integer> files = new ConcurrentHashMap<>();
+		private final AtomicLong prepareNanos = new AtomicLong();
+		private final AtomicLong applyNanos = new AtomicLong();
+		/**
+		 * The slowest files so far with the fastest of them at the head, guarded by itself
+		 */
+		private final PriorityQueue<FileTime> slowest = new PriorityQueue<>(Comparator.comparingLong(FileTime::nanos));
+
+		private void onParsed(final ResourceLocation file, final long nanos) {
+			synchronized (slowest) {
+				if (slowest.size() < SLOWEST_FILES) {
+					slowest.add(new FileTime(file, nanos));
+				} else if (slowest.peek().nanos < nanos) {
+					slowest.poll();
+					slowest.add(new FileTime(file, nanos));
+				}
+			}
+		}
+
+		private DirectoryStats snapshot(final String directory) {
+			final List<FileTime> slowestFiles;
+			synchronized (slowest) {
+				slowestFiles = slowest.stream().sorted(Comparator.comparingLong(FileTime::nanos).reversed()).toList();
+			}
+			return new DirectoryStats(directory, Collections.unmodifiableSortedMap(new TreeMap<>(files)), prepareNanos.get(), applyNanos.get(),
+					slowestFiles);
+		}
+	}
+
+	private static final class ReadingFile {
+
+		@Nullable
+		private ResourceLocation id;
+		private long start;
+	}
+
+	private static final class Pending {
+
+		private final long start;
+		private final Consumer<Report> callback;
+		private final Map<String, Directory> directories = new ConcurrentHashMap<>();
+
+		private Pending(final long start, final Consumer<Report> callback) {
+			this.start = start;
+			this.callback = callback;
+		}
+
+		private Directory directory(final String directory) {
+			return directories.computeIfAbsent(directory, key -> new Directory());
+		}
+	}
+}
@@ -0,0 +1,151 @@
+package com.example.examplemod.profiling;
+
+import com.example.examplemod.ExampleMod;
+import com.google.gson.*;
+import net.neoforged.bus.api.*;
+import net.neoforged.fml.loading.FMLPaths;
+import net.neoforged.neoforge.registries.RegisterEvent;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Records wall time and allocation of the mod's startup phases and writes them out as a JSON timeline to
+ * {@value #FILE_NAME} in the game directory once loading completes. Phases finishing after that (like creative tabs, which
+ * are only built once a world is joined) rewrite the file.
+ * <p>
+ * Allocation is measured for the thread a phase started on, parallel mod loading means other threads may be busy with
+ * other mods at the same time.
+ */
+public final class StartupTimeline {
+
+	public static final String FILE_NAME = "examplemod-startup-timeline.json";
+
+	private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+	private static final long ORIGIN = System.nanoTime();
+	private static final Queue<Entry> ENTRIES = new ConcurrentLinkedQueue<>();
+	private static final Map<String, Phase> OPEN_REGISTRY_PHASES = new ConcurrentHashMap<>();
+	private static final Set<String> ONCE = ConcurrentHashMap.newKeySet();
+	private static volatile boolean written;
+
+	/**
+	 * Starts timing a phase, close the returned phase to record it
+	 */
+	public static Phase begin(final String name) {
+		return new Phase(name);
+	}
+
+	/**
+	 * Like {@link #begin(String)} but only the first phase with a given name is recorded, for events which fire again later on
+	 *
+	 * @return The phase or null if one with the same name was already started
+	 */
+	@Nullable
+	public static Phase beginOnce(final String name) {
+		return ONCE.add(name) ? new Phase(name) : null;
+	}
+
+	/**
+	 * Records a phase made up of work spread over several calls, ending now
+	 *
+	 * @param wallNanos The summed up time of the work
+	 */
+	public static void recordDuration(final String name, final long wallNanos) {
+		final var thread = Thread.currentThread();
+		record(new Entry(name, thread.getName(), System.nanoTime() - wallNanos - ORIGIN, wallNanos, -1));
+	}
+
+	/**
+	 * Times every {@link RegisterEvent} on the mod bus, bracketing all of our listeners for each registry
+	 */
+	public static void timeRegistration(final IEventBus modBus) {
+		modBus.addListener(EventPriority.HIGHEST, RegisterEvent.class,
+				event -> OPEN_REGISTRY_PHASES.put(event.getRegistryKey().location().toString(),
+						begin("RegisterEvent/" + event.getRegistryKey().location())));
+		modBus.addListener(EventPriority.LOWEST, RegisterEvent.class, event -> {
+			final var phase = OPEN_REGISTRY_PHASES.remove(event.getRegistryKey().location().toString());
+			if (phase != null) phase.close();
+		});
+	}
+
+	/**
+	 * @return The names of every phase recorded so far, in the order they finished
+	 */
+	public static List<String> recordedPhases() {
+		return ENTRIES.stream().map(Entry::name).toList();
+	}
+
+	/**
+	 * Writes the timeline, called once loading is complete
+	 */
+	public static void write() {
+		written = true;
+		save();
+	}
+
+	private static void record(final Entry entry) {
+		ENTRIES.add(entry);
+		if (written) save();
+	}
+
+	private static synchronized void save() {
+		final var json = new JsonObject();
+		json.addProperty("mod", ExampleMod.MOD_ID);
+		final var phases = new JsonArray();
+		ENTRIES.stream().sorted(Comparator.comparingLong(Entry::startNanos)).forEach(entry -> {
+			final var phase = new JsonObject();
+			phase.addProperty("name", entry.name);
+			phase.addProperty("thread", entry.thread);
+			phase.addProperty("startMillis", entry.startNanos / 1_000_000D);
+			phase.addProperty("wallMillis", entry.wallNanos / 1_000_000D);
+			phase.addProperty("allocatedBytes", entry.allocatedBytes);
+			phases.add(phase);
+		});
+		// Phases may nest and overlap, this is only an upper bound
+		json.addProperty("sumWallMillis", ENTRIES.stream().mapToLong(Entry::wallNanos).sum() / 1_000_000D);
+		json.add("phases", phases);
+
+		final Path path = FMLPaths.GAMEDIR.get().resolve(FILE_NAME);
+		try {
+			Files.writeString(path, GSON.toJson(json));
+		} catch (final IOException exception) {
+			ExampleMod.LOG.warn("Failed to write startup timeline to {}", path, exception);
+		}
+	}
+
+	/**
+	 * @return The bytes allocated by the current thread so far, or -1 if the JVM can't tell
+	 */
+	private static long allocatedBytes() {
+		if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads && threads.isThreadAllocatedMemoryEnabled()) {
+			return threads.getCurrentThreadAllocatedBytes();
+		}
+		return -1;
+	}
+
+	public static final class Phase implements AutoCloseable {
+
+		private final String name;
+		private final Thread thread = Thread.currentThread();
+		private final long start = System.nanoTime();
+		private final long allocatedAtStart = allocatedBytes();
+
+		private Phase(final String name) {
+			this.name = name;
+		}
+
+		@Override
+		public void close() {
+			final long wall = System.nanoTime() - start;
+			// Allocation counters are per thread, they mean nothing if the phase ended on another one
+			final long allocated = thread == Thread.currentThread() && allocatedAtStart != -1 ? allocatedBytes() - allocatedAtStart : -1;
+			record(new Entry(name, thread.getName(), start - ORIGIN, wall, allocated));
+		}
+	}
+
+	private record Entry(String name, String thread, long startNanos, long wallNanos, long allocatedBytes) {}
+}
@@ -0,0 +1,88 @@
+package com.example.examplemod.common.data;
+
+import net.neoforged.neoforge.common.crafting.*;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.world.item.*;
+import net.minecraft.world.item.crafting.Ingredient;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks {@link DefinitionIndex} resolves to what a linear scan over the definitions would
+ */
+final class DefinitionIndexTest {
+
+	@Test
+	void simpleDefinitionsNeverTakeTheSlowPath() {
+		final var index = DefinitionIndex.build(List.of(new Definition("stick", Ingredient.of(Items.STICK)),
+				new Definition("sticks and apples", Ingredient.of(Items.STICK, Items.APPLE))), Definition::ingredient);
+		assertEquals("stick", name(index.get(new ItemStack(Items.STICK), stack -> fail("Simple definitions are resolved ahead of time"))));
+		assertEquals("sticks and apples", name(index.get(new ItemStack(Items.APPLE), stack -> fail("Simple definitions are resolved ahead of time"))));
+		assertNull(index.get(new ItemStack(Items.DIAMOND), stack -> fail("Nothing else can match")));
+	}
+
+	@Test
+	void nonSimpleDefinitionShadowsLaterOnes() {
+		// Matches apples without listing them
+		final var custom = new Definition("custom", new UnlistedItems(Items.STICK, Items.APPLE).toVanilla());
+		final var definitions = List.of(new Definition("diamond", Ingredient.of(Items.DIAMOND)), custom,
+				new Definition("apple", Ingredient.of(Items.APPLE)));
+		final var index = DefinitionIndex.build(definitions, Definition::ingredient);
+		final var scan = scan(definitions);
+
+		assertEquals("diamond", name(index.get(new ItemStack(Items.DIAMOND), stack -> fail("Claimed before any non-simple definition"))));
+		// The index must not hand out the later simple definition, the custom one comes first
+		assertEquals("custom", name(index.get(new ItemStack(Items.APPLE), scan)));
+		assertEquals("custom", name(index.get(new ItemStack(Items.STICK), scan)));
+		// Missing from the index, but a non-simple ingredient might still match
+		final var slowPathCalls = new int[1];
+		assertNull(index.get(new ItemStack(Items.EMERALD), stack -> {
+			slowPathCalls[0]++;
+			return scan.apply(stack);
+		}));
+		assertEquals(1, slowPathCalls[0]);
+	}
+
+	@Nullable
+	private static String name(@Nullable final Definition definition) {
+		return definition == null ? null : definition.name;
+	}
+
+	private static Function<ItemStack, @Nullable Definition> scan(final List<Definition> definitions) {
+		return stack -> definitions.stream().filter(definition -> definition.ingredient.test(stack)).findFirst().orElse(null);
+	}
+
+	private record Definition(String name, Ingredient ingredient) {}
+
+	/**
+	 * Matches both items but only lists the first, like a custom ingredient which can't enumerate what it matches
+	 */
+	private record UnlistedItems(Item listed, Item unlisted) implements ICustomIngredient {
+
+		@Override
+		public boolean test(final ItemStack stack) {
+			return stack.is(listed) || stack.is(unlisted);
+		}
+
+		@Override
+		public Stream<ItemStack> getItems() {
+			return Stream.of(new ItemStack(listed));
+		}
+
+		@Override
+		public boolean isSimple() {
+			return false;
+		}
+
+		@Override
+		public IngredientType<?> getType() {
+			throw new UnsupportedOperationException("Only used in memory");
+		}
+	}
+}
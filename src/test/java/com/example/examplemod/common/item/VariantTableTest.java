@@ -0,0 +1,54 @@
+package com.example.examplemod.common.item;
+
+import com.example.examplemod.profiling.StartupTimeline;
+import net.neoforged.neoforge.registries.DeferredItem;
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class VariantTableTest {
+
+	private static final String TABLE = "test_shapes";
+
+	@Test
+	void registersFilteredProductAndRecordsConstruction() {
+		// Items are constructed once the register fires, after every combination has been registered
+		final var constructions = new ArrayList<Runnable>();
+		final VariantTable<Size, Shape, Item> table = VariantTable.register((id, factory) -> {
+			constructions.add(() -> factory.apply(new Item.Properties()));
+			return DeferredItem.createItem(ResourceLocation.fromNamespaceAndPath("examplemod_test", id));
+		}, TABLE, Size.class, Shape.class, (size, shape) -> size != Size.LARGE || shape != Shape.FLAT,
+				(size, shape) -> size.name().toLowerCase(Locale.ROOT) + "_" + shape.name().toLowerCase(Locale.ROOT),
+				(size, shape) -> properties -> Items.STICK);
+
+		assertEquals(5, table.size());
+		assertEquals("small_flat", table.get(Size.SMALL, Shape.FLAT).getId().getPath());
+		assertEquals("large_square", table.get(Size.LARGE, Shape.SQUARE).getId().getPath());
+		assertFalse(table.has(Size.LARGE, Shape.FLAT));
+		assertNull(table.getOrNull(Size.LARGE, Shape.FLAT));
+		assertThrows(IllegalArgumentException.class, () -> table.get(Size.LARGE, Shape.FLAT));
+		assertEquals(List.of("large_round", "large_square"), table.row(Size.LARGE).map(holder -> holder.getId().getPath()).toList());
+		assertEquals(5, table.stream().count());
+
+		final String phase = "VariantTable/" + TABLE;
+		assertFalse(StartupTimeline.recordedPhases().contains(phase), "Recorded before every item was constructed");
+		constructions.forEach(Runnable::run);
+		assertEquals(1, Collections.frequency(StartupTimeline.recordedPhases(), phase));
+	}
+
+	private enum Size {
+		SMALL,
+		LARGE
+	}
+
+	private enum Shape {
+		ROUND,
+		SQUARE,
+		FLAT
+	}
+}
@@ -0,0 +1,59 @@
+package com.example.examplemod.common.recipe;
+
+import net.dries007.tfc.common.recipes.KnappingPattern;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class KnappingPatternKeyTest {
+
+	@Test
+	void packsFullGrid() {
+		final var grid = pattern(5, 5, (x, y) -> x == y);
+		assertEquals(1 | 1 << 6 | 1 << 12 | 1 << 18 | 1 << 24, KnappingPatternKey.of(grid));
+	}
+
+	@Test
+	void onlyFullGridsHaveAKey() {
+		assertEquals(-1, KnappingPatternKey.of(pattern(3, 5, (x, y) -> true)));
+	}
+
+	@Test
+	void fullSizePatternHasItselfAndItsMirror() {
+		final var pattern = pattern(5, 5, (x, y) -> x == 0);
+		final var placements = KnappingPatternKey.placements(pattern);
+		assertEquals(2, placements.size());
+		assertTrue(placements.contains(KnappingPatternKey.of(pattern)));
+		assertTrue(placements.contains(KnappingPatternKey.of(pattern(5, 5, (x, y) -> x == 4))));
+	}
+
+	@Test
+	void smallPatternCoversEveryOffset() {
+		// A single removed cell, either on an otherwise empty grid or with everything around it still there
+		final var placements = KnappingPatternKey.placements(pattern(1, 1, (x, y) -> false));
+		assertEquals(26, placements.size());
+		assertTrue(placements.contains(0));
+		assertTrue(placements.contains(KnappingPatternKey.of(pattern(5, 5, (x, y) -> x != 2 || y != 3))));
+	}
+
+	@Test
+	void patternLargerThanGridHasNoPlacements() {
+		assertTrue(KnappingPatternKey.placements(pattern(6, 5, (x, y) -> true)).isEmpty());
+	}
+
+	private static KnappingPattern pattern(final int width, final int height, final Cell cell) {
+		final var pattern = new KnappingPattern(width, height, false);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				pattern.set(x, y, cell.set(x, y));
+			}
+		}
+		return pattern;
+	}
+
+	@FunctionalInterface
+	private interface Cell {
+
+		boolean set(int x, int y);
+	}
+}
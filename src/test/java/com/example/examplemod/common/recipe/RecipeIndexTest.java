@@ -0,0 +1,48 @@
+package com.example.examplemod.common.recipe;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class RecipeIndexTest {
+
+	@Test
+	void findsFirstMatchingCandidate() {
+		final var index = RecipeIndex.<String, String>builder().add("a", List.of("x")).add("b", List.of("x", "y")).add("c", List.of("y")).build();
+		assertEquals("a", index.find("x", recipe -> true));
+		assertEquals("b", index.find("y", recipe -> true));
+		assertEquals("c", index.find("y", recipe -> recipe.equals("c")));
+		assertNull(index.find("z", recipe -> true));
+	}
+
+	@Test
+	void mergesUnindexedInRegistrationOrder() {
+		final var index = RecipeIndex.<String, String>builder()
+				.add("first indexed", List.of("x"))
+				.addUnindexed("unindexed")
+				.add("second indexed", List.of("x"))
+				.build();
+		// Same result as a linear scan over the recipes in the order they were added
+		assertEquals("first indexed", index.find("x", recipe -> true));
+		assertEquals("unindexed", index.find("x", recipe -> !recipe.equals("first indexed")));
+		assertEquals("second indexed", index.find("x", recipe -> recipe.equals("second indexed")));
+		assertEquals("unindexed", index.find("z", recipe -> true));
+		assertEquals("unindexed", index.scanUnindexed(recipe -> true));
+	}
+
+	@Test
+	void repeatedKeysDontDuplicateCandidates() {
+		final var index = RecipeIndex.<String, String>builder().add("a", List.of("x", "x")).build();
+		final var tested = new int[1];
+		assertNull(index.find("x", recipe -> {
+			tested[0]++;
+			return false;
+		}));
+		assertEquals(1, tested[0]);
+		assertEquals(1, index.size());
+		assertEquals(1, index.keyCount());
+		assertEquals(0, index.unindexedCount());
+	}
+}
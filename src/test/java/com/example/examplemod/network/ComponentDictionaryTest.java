@@ -0,0 +1,121 @@
+package com.example.examplemod.network;
+
+import io.netty.buffer.*;
+import io.netty.handler.codec.DecoderException;
+import net.neoforged.neoforge.network.connection.ConnectionType;
+import org.junit.jupiter.api.*;
+
+import net.minecraft.ChatFormatting;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.network.*;
+import net.minecraft.network.chat.Component;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round trips {@link ExampleServerboundPacket} through the {@link ComponentDictionary} wire format
+ */
+final class ComponentDictionaryTest {
+
+	private final RegistryAccess registryAccess = RegistryAccess.fromRegistryOfRegistries(BuiltInRegistries.REGISTRY);
+	private final UUID player = UUID.randomUUID();
+
+	@BeforeEach
+	void reset() {
+		ComponentDictionary.resetClient();
+	}
+
+	@AfterEach
+	void cleanUp() {
+		ComponentDictionary.resetClient();
+		ComponentDictionary.remove(player);
+	}
+
+	@Test
+	void definitionThenReference() {
+		final var component = Component.literal("Defined once").withStyle(ChatFormatting.GOLD);
+
+		final var definition = encode(component);
+		final var reference = encode(component);
+		assertTrue(reference.readableBytes() < definition.readableBytes(), "A reference should be smaller than its definition");
+
+		final var defined = decode(definition);
+		defined.receive(player);
+		assertEquals(component, defined.component(player));
+
+		final var referenced = decode(reference);
+		referenced.receive(player);
+		assertEquals(component, referenced.component(player));
+	}
+
+	@Test
+	void inlineOnceTableIsFull() {
+		for (int i = 0; i < ComponentDictionary.MAX_ENTRIES; i++) {
+			assertNotEquals(ComponentDictionary.INLINE, ComponentDictionary.assignClientId(Component.literal("Filler " + i)));
+		}
+		assertEquals(ComponentDictionary.INLINE, ComponentDictionary.assignClientId(Component.literal("One too many")));
+
+		final var component = Component.literal("Sent inline");
+		final var encoded = encode(component);
+		assertEquals(ComponentDictionary.INLINE, VarInt.read(encoded.duplicate()), "Header should mark the component as inline");
+
+		// Inline components don't need the player's table
+		final var decoded = decode(encoded);
+		assertEquals(component, decoded.component(player));
+		// A second send is inline again, nothing was assigned
+		assertEquals(ComponentDictionary.INLINE, ComponentDictionary.clientId(component));
+	}
+
+	@Test
+	void unknownIdResolvesToNull() {
+		final var buffer = Unpooled.buffer();
+		VarInt.write(buffer, 5 << 1);
+		final var decoded = decode(buffer);
+		decoded.receive(player);
+		assertNull(decoded.component(player));
+	}
+
+	@Test
+	void idOutOfRangeIsRejected() {
+		final var buffer = Unpooled.buffer();
+		VarInt.write(buffer, (ComponentDictionary.MAX_ENTRIES + 1) << 1);
+		assertThrows(DecoderException.class, () -> decode(buffer));
+	}
+
+	@Test
+	void oversizedDefinitionIsRejected() {
+		final var buffer = Unpooled.buffer();
+		VarInt.write(buffer, 1 << 1 | 1);
+		buffer.writeShort(ComponentDictionary.MAX_ENTRY_BYTES + 1);
+		assertThrows(DecoderException.class, () -> decode(buffer));
+	}
+
+	@Test
+	void releasedInlineComponentIsNotDecoded() {
+		for (int i = 0; i < ComponentDictionary.MAX_ENTRIES; i++) {
+			ComponentDictionary.assignClientId(Component.literal("Filler " + i));
+		}
+		final var encoded = encode(Component.literal("Rejected"));
+		final var decoded = decode(encoded);
+		decoded.release();
+		assertNull(decoded.component(player));
+		assertEquals(1, encoded.refCnt(), "The slice should have been released");
+	}
+
+	private ByteBuf encode(final Component component) {
+		final var encoded = Unpooled.buffer();
+		ExampleServerboundPacket.CODEC.encode(new RegistryFriendlyByteBuf(encoded, registryAccess, ConnectionType.NEOFORGE),
+				new ExampleServerboundPacket(component));
+		return encoded;
+	}
+
+	private ExampleServerboundPacket decode(final ByteBuf encoded) {
+		final var buffer = new RegistryFriendlyByteBuf(encoded, registryAccess, ConnectionType.NEOFORGE);
+		final var packet = ExampleServerboundPacket.CODEC.decode(buffer);
+		assertEquals(0, buffer.readableBytes(), "Payload should be read completely");
+		return packet;
+	}
+}
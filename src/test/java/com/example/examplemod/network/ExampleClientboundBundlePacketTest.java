@@ -0,0 +1,52 @@
+package com.example.examplemod.network;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DecoderException;
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.network.VarInt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round trips the delta encoded entity ids of {@link ExampleClientboundBundlePacket}
+ */
+final class ExampleClientboundBundlePacketTest {
+
+	@Test
+	void emptyBundle() {
+		assertArrayEquals(new int[0], roundTrip(new int[0]));
+	}
+
+	@Test
+	void closeIdsTakeAByteEach() {
+		final int[] entityIds = {1000, 1001, 1003, 1010, 1100};
+		final var buffer = Unpooled.buffer();
+		ExampleClientboundBundlePacket.CODEC.encode(buffer, new ExampleClientboundBundlePacket(entityIds));
+		// Count, the first id (two bytes) and a byte for every delta after it
+		assertEquals(1 + 2 + entityIds.length - 1, buffer.readableBytes());
+		assertArrayEquals(entityIds, ExampleClientboundBundlePacket.CODEC.decode(buffer).entityIds());
+	}
+
+	@Test
+	void largeAndNegativeIds() {
+		assertArrayEquals(new int[] {Integer.MIN_VALUE, -1, 0, 1, Integer.MAX_VALUE},
+				roundTrip(new int[] {Integer.MIN_VALUE, -1, 0, 1, Integer.MAX_VALUE}));
+	}
+
+	@Test
+	void countLargerThanPayloadIsRejected() {
+		final var buffer = Unpooled.buffer();
+		VarInt.write(buffer, 100);
+		buffer.writeByte(1);
+		assertThrows(DecoderException.class, () -> ExampleClientboundBundlePacket.CODEC.decode(buffer));
+	}
+
+	private static int[] roundTrip(final int[] entityIds) {
+		final var buffer = Unpooled.buffer();
+		ExampleClientboundBundlePacket.CODEC.encode(buffer, new ExampleClientboundBundlePacket(entityIds));
+		final var decoded = ExampleClientboundBundlePacket.CODEC.decode(buffer);
+		assertEquals(0, buffer.readableBytes(), "Payload should be read completely");
+		return decoded.entityIds();
+	}
+}